@@ -0,0 +1,206 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import processing.core.PVector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Per-call cost of the collision kernels a tick runs. Sizes cover a normal board
+// (a few dozen walls, short lines, a handful of balls) and stress cases
+// (hundreds of walls, long scribbles, thousands of balls). Each benchmark
+// reports the time for one pass of every ball, moving by its step for one
+// tick, against the whole fixture.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelBenchmark {
+
+    @State(Scope.Thread)
+    public static class Balls {
+        @Param({"8", "2000"})
+        public int ballCount;
+
+        public BallStore balls;
+        public BallCollisions collisions = new BallCollisions();
+        public float[] dx; // Each ball's step for one tick
+        public float[] dy;
+        public float[] targets; // Per ball, the ends (x1, y1, x2, y2) of a segment crossing its step
+        public float[] boxX; // Per ball, the centre of a box in its path
+        public float[] boxY;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            balls = new BallStore();
+            for (int i = 0; i < ballCount; i++) {
+                balls.add(random.nextFloat() * App.WIDTH, App.TOPBAR + random.nextFloat() * (App.HEIGHT - App.TOPBAR), i % 5, random);
+            }
+            dx = new float[ballCount];
+            dy = new float[ballCount];
+            targets = new float[ballCount * 4];
+            boxX = new float[ballCount];
+            boxY = new float[ballCount];
+            for (int i = 0; i < ballCount; i++) {
+                dx[i] = balls.getVx(i) * balls.getTimeStep();
+                dy[i] = balls.getVy(i) * balls.getTimeStep();
+                // Across the middle of the ball's path, so the kernels below always take the hit path
+                float length = (float) Math.sqrt(dx[i] * dx[i] + dy[i] * dy[i]);
+                float sideX = -dy[i] / length * App.CELLSIZE;
+                float sideY = dx[i] / length * App.CELLSIZE;
+                float midX = balls.getX(i) + dx[i] / 2 + dx[i] / length * balls.getRadius(i);
+                float midY = balls.getY(i) + dy[i] / 2 + dy[i] / length * balls.getRadius(i);
+                targets[i * 4] = midX - sideX;
+                targets[i * 4 + 1] = midY - sideY;
+                targets[i * 4 + 2] = midX + sideX;
+                targets[i * 4 + 3] = midY + sideY;
+                // A cell-sized box whose nearest corner sits at the same spot
+                float reach = App.CELLSIZE / 2f * (float) Math.sqrt(2);
+                boxX[i] = midX + dx[i] / length * reach;
+                boxY[i] = midY + dy[i] / length * reach;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Walls {
+        @Param({"68", "1024"})
+        public int wallCount;
+
+        public List<WallBlock> blocks;
+
+        @Setup
+        public void setUp() {
+            // Colours differ between neighbours both ways, so no tiles merge and every wall is its own
+            // block. The stress size needs more cells than the board has, so the grid runs on below it.
+            List<Wall> walls = new ArrayList<>();
+            for (int i = 0; i < wallCount; i++) {
+                int column = i % App.BOARD_WIDTH;
+                int row = i / App.BOARD_WIDTH;
+                walls.add(new Wall(column * App.CELLSIZE, App.TOPBAR + row * App.CELLSIZE, i % 5));
+            }
+            int rows = (wallCount + App.BOARD_WIDTH - 1) / App.BOARD_WIDTH;
+            blocks = new WallGrid(App.BOARD_WIDTH, rows, walls).getBlocks();
+            if (blocks.size() != wallCount) {
+                throw new IllegalStateException("Expected " + wallCount + " blocks, got " + blocks.size());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Line {
+        @Param({"20", "500"})
+        public int pointCount;
+
+        public PlayerLine line;
+        public LineSegmentIndex index;
+
+        @Setup
+        public void setUp() {
+            // A zig-zag scribble across the board, 6px between samples
+            line = new PlayerLine(0, App.TOPBAR + 100);
+            for (int i = 1; i < pointCount; i++) {
+                int x = (i * 6) % App.WIDTH;
+                int y = App.TOPBAR + 100 + (i / (App.WIDTH / 6)) * 20 + (i % 2) * 3;
+                line.addPoint(x, y);
+            }
+            index = new LineSegmentIndex();
+            for (int i = 0; i < line.getPointCount() - 1; i++) {
+                index.addSegment(line, i);
+            }
+            index.finishLine(line);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Holes {
+        public List<Hole> holes;
+
+        @Setup
+        public void setUp() {
+            holes = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                holes.add(new Hole(App.CELLSIZE * (2 + 3 * i), App.TOPBAR + App.CELLSIZE * (2 + 2 * i), i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void sweepCircleToBox(Balls b, Blackhole blackhole) {
+        PVector out = new PVector();
+        float half = App.CELLSIZE / 2f;
+        for (int ball = 0; ball < b.balls.size(); ball++) {
+            float x = b.boxX[ball];
+            float y = b.boxY[ball];
+            blackhole.consume(VectorMath.sweepCircleToBox(b.balls.getX(ball), b.balls.getY(ball), b.dx[ball], b.dy[ball],
+                    x - half, y - half, x + half, y + half, b.balls.getRadius(ball), out));
+        }
+    }
+
+    @Benchmark
+    public void sweepCircleToSegment(Balls b, Blackhole blackhole) {
+        PVector out = new PVector();
+        for (int ball = 0; ball < b.balls.size(); ball++) {
+            blackhole.consume(VectorMath.sweepCircleToSegment(b.balls.getX(ball), b.balls.getY(ball), b.dx[ball], b.dy[ball],
+                    b.targets[ball * 4], b.targets[ball * 4 + 1], b.targets[ball * 4 + 2], b.targets[ball * 4 + 3],
+                    b.balls.getRadius(ball), out));
+        }
+    }
+
+    @Benchmark
+    public void wallBlockSweep(Balls b, Walls w, Blackhole blackhole) {
+        PVector out = new PVector();
+        for (int ball = 0; ball < b.balls.size(); ball++) {
+            for (int i = 0; i < w.blocks.size(); i++) {
+                blackhole.consume(w.blocks.get(i).sweep(b.balls, ball, b.dx[ball], b.dy[ball], out));
+            }
+        }
+    }
+
+    @Benchmark
+    public void lineIndexSweep(Balls b, Line l, Blackhole blackhole) {
+        PVector normal = new PVector();
+        SweepHit hit = new SweepHit();
+        for (int ball = 0; ball < b.balls.size(); ball++) {
+            l.index.sweep(b.balls, ball, b.dx[ball], b.dy[ball], normal, hit);
+            blackhole.consume(hit.time);
+        }
+    }
+
+    @Benchmark
+    public void holeAttracts(Balls b, Holes h, Blackhole blackhole) {
+        for (int ball = 0; ball < b.balls.size(); ball++) {
+            for (int i = 0; i < h.holes.size(); i++) {
+                blackhole.consume(h.holes.get(i).attracts(b.balls, ball));
+            }
+        }
+    }
+
+    @Benchmark
+    public void ballReflect(Balls b) {
+        for (int ball = 0; ball < b.balls.size(); ball++) {
+            b.balls.reflect(ball, 0.6f, -0.8f);
+        }
+    }
+
+    @Benchmark
+    public void ballCollisions(Balls b, Blackhole blackhole) {
+        b.collisions.resolve(b.balls);
+        blackhole.consume(b.balls.getVx(0));
+    }
+}
@@ -0,0 +1,51 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Cost of a whole Level.update() on the shipped levels, restarting whenever a
+// level finishes so every measured tick has live balls and lines
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LevelTickBenchmark {
+
+    @Param({"0", "1", "2"})
+    public int levelIndex;
+
+    private Level level;
+    private Random scriptRandom;
+    private int tick;
+
+    @Setup
+    public void setUp() throws Exception {
+        level = LevelLoader.loadLevels(Paths.get("config.json"), new Random(42), change -> { }).get(levelIndex);
+        scriptRandom = new Random(7);
+    }
+
+    @Benchmark
+    public void update() {
+        if (level.isCompleted() || level.isTimedOut()) {
+            level.restart();
+            tick = 0;
+        }
+        BatchRunner.RANDOM_LINES.onTick(level, tick++, scriptRandom);
+        level.update();
+    }
+}
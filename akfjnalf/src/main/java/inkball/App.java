@@ -1,319 +1,445 @@
-package inkball;
-
-import processing.core.PApplet;
-import processing.core.PImage;
-import processing.data.JSONArray;
-import processing.data.JSONObject;
-import processing.event.KeyEvent;
-import processing.event.MouseEvent;
-
-import java.util.*;
-
-public class App extends PApplet {
-
-    public static final int CELLSIZE = 32;
-    public static final int TOPBAR = 64;
-    public static final int WIDTH = 576;
-    public static final int HEIGHT = 640;
-    public static final int BOARD_WIDTH = WIDTH / CELLSIZE;
-    public static final int BOARD_HEIGHT = (HEIGHT - TOPBAR) / CELLSIZE;
-    public static final int FPS = 30;
-
-    private PImage[] wallImages;
-    private PImage[] ballImages;
-    private PImage[] holeImages;
-    private Tile[][] board;
-    private PImage tileImage;
-private PImage spawnerImage;
-    public String configPath;
-    public static Random random = new Random();
-    
-    private JSONObject config;
-    private List<Level> levels;
-    private int currentLevelIndex;
-    private Level currentLevel;
-    private int score;
-    private boolean paused;
-    private boolean gameEnded;
-    
-    public App() {
-        this.configPath = "config.json";
-    }
-
-    @Override
-    public void settings() {
-        size(WIDTH, HEIGHT);
-    }
-
-    @Override
-    public void setup() {
-        frameRate(FPS);
-    loadResources();
-    loadConfig();
-    initializeLevels();
-    initializeBoard();
-    startGame();
-    }
-
-    public JSONObject getConfig() {
-        return config;
-    }
-
-    private void loadResources() {
-        String resourcePath = "inkball/";
-
-        wallImages = new PImage[5];
-        ballImages = new PImage[5];
-        holeImages = new PImage[5];
-
-        // Load images for walls, balls, and holes
-        for (int i = 0; i < 5; i++) {
-            wallImages[i] = loadImage(resourcePath + "wall" + i + ".png");
-            ballImages[i] = loadImage(resourcePath + "ball" + i + ".png");
-            holeImages[i] = loadImage(resourcePath + "hole" + i + ".png");
-
-            if (wallImages[i] == null || ballImages[i] == null || holeImages[i] == null) {
-                System.err.println("Error: Unable to load image for index " + i);
-            }
-        }
-
-        // Load the tile image
-        tileImage = loadImage(resourcePath + "tile.png");
-        if (tileImage == null) {
-            System.err.println("Error: Unable to load tile.png from " + resourcePath);
-            createFallbackTileImage();
-        } else {
-            System.out.println("Successfully loaded tile image");
-        }
-
-        // Load the spawner image (entrypoint.png)
-        spawnerImage = loadImage(resourcePath + "entrypoint.png");
-        if (spawnerImage == null) {
-            System.err.println("Error: Unable to load entrypoint.png from " + resourcePath);
-        } else {
-            System.out.println("Successfully loaded spawner image");
-        }
-    }
-
-    // Getter for the spawner image
-    public PImage getSpawnerImage() {
-        return spawnerImage;
-    }
-
-    // Helper method to create a fallback tile image
-    private void createFallbackTileImage() {
-        tileImage = createImage(CELLSIZE, CELLSIZE, RGB);
-        tileImage.loadPixels();
-        for (int i = 0; i < tileImage.pixels.length; i++) {
-            tileImage.pixels[i] = color(200);  // Light grey color
-        }
-        tileImage.updatePixels();
-        System.out.println("Created fallback tile image");
-    }
-
-    private void loadConfig() {
-        config = loadJSONObject(configPath);
-    }
-    private void initializeBoard() {
-        if (tileImage == null) {
-            System.err.println("tileImage is null in initializeBoard()");
-            return;
-        }
-        board = new Tile[BOARD_WIDTH][BOARD_HEIGHT];
-        for (int i = 0; i < BOARD_WIDTH; i++) {
-            for (int j = 0; j < BOARD_HEIGHT; j++) {
-                float x = i * CELLSIZE;
-                float y = j * CELLSIZE + TOPBAR;
-                board[i][j] = new Tile(x, y, color(200), tileImage);
-                if (board[i][j] == null) {
-                    System.err.println("Failed to create Tile at " + i + ", " + j);
-                }
-            }
-        }
-    }
-    
-
-    private void initializeLevels() {
-        levels = new ArrayList<>();
-        JSONArray levelsConfig = config.getJSONArray("levels");
-        for (int i = 0; i < levelsConfig.size(); i++) {
-            JSONObject levelConfig = levelsConfig.getJSONObject(i);
-            levels.add(new Level(levelConfig, this));
-        }
-    }
-
-    private void startGame() {
-        currentLevelIndex = 0;
-        score = 0;
-        paused = false;
-        gameEnded = false;
-        startLevel();
-    }
-
-    private void startLevel() {
-        currentLevel = levels.get(currentLevelIndex);
-    }
-
-    @Override
-    public void draw() {
-        background(255);
-        
-        if (!paused && !gameEnded) {
-            currentLevel.update();
-        }
-        
-    
-        
-        
-        currentLevel.display();
-        
-    
-    // Draw tiles
-    for (int i = 0; i < BOARD_WIDTH; i++) {
-        for (int j = 0; j < BOARD_HEIGHT; j++) {
-            board[i][j].display(this);
-        }
-    }
-        currentLevel.display();
-        displayTopBar();
-        
-        if (paused) {
-            displayPausedMessage();
-        } else if (gameEnded) {
-            displayGameEndMessage();
-        } else if (currentLevel.isTimedOut()) {
-            displayTimesUpMessage();
-        }
-        
-        if (currentLevel.isCompleted()) {
-            handleLevelCompletion();
-        }
-    }
-private void displayTopBar() {
-    // Draw the background of the top bar
-    fill(200);
-    rect(0, 0, WIDTH, TOPBAR);
-
-    // Draw the black box for queued balls
-    fill(0);
-    rect(10, 10, 120, TOPBAR - 20);  // Adjusted black box dimensions
-
-    // Display the next balls horizontally inside the black box
-    currentLevel.displayNextBalls(20, 18);  // Adjusted alignment
-
-    // Display the spawn timer **next to the black box**
-    fill(0);  // Black text color
-    textSize(16);
-    textAlign(LEFT, CENTER);
-    text(String.format("%.1f", currentLevel.getSpawnTimeRemaining()), 140, TOPBAR / 2);
-
-    // Display score and time on the right side, aligned vertically
-    fill(0);  // Black text color
-    textSize(20);
-    textAlign(RIGHT, CENTER);
-    text("Score: " + score, WIDTH - 10, TOPBAR / 3);  // Adjusted alignment for score
-    text("Time: " + currentLevel.getRemainingTime(), WIDTH - 10, 2 * TOPBAR / 3);
-}
-
-
-    private void displayPausedMessage() {
-        fill(0);
-        textAlign(CENTER, CENTER);
-        textSize(20);
-        text("*** PAUSED ***", WIDTH / 2, TOPBAR / 2);
-    }
-
-    private void displayGameEndMessage() {
-        fill(0);
-        textAlign(CENTER, CENTER);
-        textSize(20);
-        text("=== ENDED ===", WIDTH / 2, TOPBAR / 2);
-    }
-
-    private void displayTimesUpMessage() {
-        fill(0);
-        textAlign(CENTER, CENTER);
-        textSize(20);
-        text("=== TIME'S UP ===", WIDTH / 2, TOPBAR / 2);
-    }
-
-    private void handleLevelCompletion() {
-        int timeBonus = currentLevel.completeLevel();
-        score += timeBonus;
-        System.out.println("Level completed! Time bonus: " + timeBonus);
-        currentLevelIndex++;
-        if (currentLevelIndex < levels.size()) {
-            startLevel();
-        } else {
-            gameEnded = true;
-            System.out.println("=== ENDED ===");
-        }
-    }
-
-    @Override
-    public void keyPressed(KeyEvent event) {
-        if (event.getKey() == 'r') {
-            if (gameEnded) {
-                startGame();
-            } else {
-                currentLevel.restart();
-            }
-        } else if (event.getKey() == ' ') {
-            paused = !paused;
-        }
-    }
-
-    @Override
-    public void mousePressed(MouseEvent e) {
-        if (!paused && !gameEnded) {
-            currentLevel.startDrawingLine(e.getX(), e.getY());
-        }
-    }
-
-    @Override
-    public void mouseDragged(MouseEvent e) {
-        if (!paused && !gameEnded) {
-            if (e.getButton() == LEFT) {
-                currentLevel.continueDrawingLine(e.getX(), e.getY());
-            } else if (e.getButton() == RIGHT) {
-                currentLevel.removeLineAt(e.getX(), e.getY());
-            }
-        }
-    }
-
-    @Override
-    public void mouseReleased(MouseEvent e) {
-        if (!paused && !gameEnded) {
-            currentLevel.finishDrawingLine();
-        }
-    }
-
-    public PImage getWallImage(int color) {
-        return wallImages[color];
-    }
-
-    public PImage getBallImage(int color) {
-        return ballImages[color];
-    }
-
-    public PImage getHoleImage(int color) {
-        return holeImages[color];
-    }
-
-    public PImage getTileImage() {
-        return tileImage;
-    }
-
-    public void updateScore(int scoreChange) {
-        score += scoreChange;
-        System.out.println("Score updated: " + score);
-    }
-
-    public int getScore() {
-        return score;
-    }
-
-    public static void main(String[] args) {
-        PApplet.main("inkball.App");
-    }
-}
+package inkball;
+
+import processing.core.PApplet;
+import processing.core.PImage;
+import processing.event.KeyEvent;
+import processing.event.MouseEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class App extends PApplet {
+
+    public static final int CELLSIZE = 32;
+    public static final int TOPBAR = 64;
+    public static final int WIDTH = 576;
+    public static final int HEIGHT = 640;
+    public static final int BOARD_WIDTH = WIDTH / CELLSIZE;
+    public static final int BOARD_HEIGHT = (HEIGHT - TOPBAR) / CELLSIZE;
+    public static final int FPS = 30; // Reference simulation rate that speeds and timers are tuned for
+
+    // Per-phase frame timings (see Metrics); run with -Dinkball.metrics=on and press 'm' to print them
+    private static final LatencyHistogram FRAME_INTERVAL = Metrics.histogram("draw.interval");
+    private static final LatencyHistogram DRAW_TIME = Metrics.histogram("draw");
+    private static final LatencyHistogram CLEAR_TIME = Metrics.histogram("draw.background");
+    private static final LatencyHistogram DISPLAY_TIME = Metrics.histogram("draw.display");
+    private static final LatencyHistogram TOP_BAR_TIME = Metrics.histogram("draw.topBar");
+    private static final LatencyHistogram MESSAGE_TIME = Metrics.histogram("draw.message");
+    private long lastDrawNanos;
+
+    private PImage[] wallImages;
+    private PImage[] ballImages;
+    private PImage[] holeImages;
+    private PImage tileImage;
+private PImage spawnerImage;
+
+    // Every sprite at the size it is drawn, packed once after loading
+    private SpriteAtlas atlas;
+    private int[] wallSprites;
+    private int[] ballSprites;
+    private int[] nextBallSprites;
+    private int[] holeSprites;
+    private int tileSprite;
+    private int spawnerSprite;
+    public String configPath;
+    
+    private GameSpec spec;
+    private ExecutorService loader; // Decodes assets at startup, then prefetches levels
+    private LevelCatalog catalog;
+    private Game game;
+    private LevelRenderer renderer;
+    private Simulation simulation; // Runs the game on its own thread
+    private RenderFrame frame; // The tick being drawn
+
+    // Input recording and replay, from --record <file> / --replay <file> / --seed <n>
+    private String recordPath;
+    private String replayPath;
+    private Long seed;
+    private InputRecorder recorder;
+    private InputPlayback playback;
+    private final InputQueue input = new InputQueue(); // Filled by event handlers, drained by the game loop
+
+    
+    public App() {
+        this.configPath = "config.json";
+    }
+
+    @Override
+    public void settings() {
+        size(WIDTH, HEIGHT);
+    }
+
+    @Override
+    public void setup() {
+    long startNanos = System.nanoTime();
+    parseArgs();
+    startLoader();
+    // Config, images and the first layout load concurrently; later levels are prefetched during play
+    CompletableFuture<GameSpec> specLoad = CompletableFuture.supplyAsync(this::loadConfig, loader);
+    List<Future<PImage>> images = requestImages();
+    spec = specLoad.join();
+    frameRate(spec.getFrameRate());
+    catalog = new LevelCatalog(spec, this::loadTemplate, loader);
+    catalog.prefetch(0);
+    loadResources(images);
+    initializeGame();
+    renderer = new LevelRenderer(this);
+    simulation.start();
+    Log.info("Startup took ms:", (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void startLoader() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        loader = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "inkball-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void parseArgs() {
+        if (args == null) {
+            return;
+        }
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--record")) {
+                recordPath = args[++i];
+            } else if (args[i].equals("--replay")) {
+                replayPath = args[++i];
+            } else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[++i]);
+            }
+        }
+        if (replayPath != null) {
+            try {
+                playback = InputPlayback.load(Paths.get(replayPath));
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read recording " + replayPath, e);
+            }
+            // A replay has to run on the config and seed it was recorded with
+            configPath = playback.getConfigPath();
+            seed = playback.getSeed();
+            Log.info("Replaying input events:", playback.getEventCount());
+        }
+    }
+
+    public GameSpec getSpec() {
+        return spec;
+    }
+
+    // Starts decoding every image on the loader threads: walls, balls and holes 0-4, then tile and spawner
+    private List<Future<PImage>> requestImages() {
+        String resourcePath = "inkball/";
+        List<Future<PImage>> images = new ArrayList<>();
+        for (String name : new String[] {"wall", "ball", "hole"}) {
+            for (int i = 0; i < 5; i++) {
+                String path = resourcePath + name + i + ".png";
+                images.add(loader.submit(() -> loadImage(path)));
+            }
+        }
+        images.add(loader.submit(() -> loadImage(resourcePath + "tile.png")));
+        images.add(loader.submit(() -> loadImage(resourcePath + "entrypoint.png")));
+        return images;
+    }
+
+    private void loadResources(List<Future<PImage>> images) {
+        String resourcePath = "inkball/";
+
+        wallImages = new PImage[5];
+        ballImages = new PImage[5];
+        holeImages = new PImage[5];
+
+        // Collect the decoded images for walls, balls, and holes
+        for (int i = 0; i < 5; i++) {
+            wallImages[i] = await(images.get(i));
+            ballImages[i] = await(images.get(5 + i));
+            holeImages[i] = await(images.get(10 + i));
+
+            if (wallImages[i] == null || ballImages[i] == null || holeImages[i] == null) {
+                Log.error("Unable to load image for index " + i);
+            }
+        }
+
+        // Load the tile image
+        tileImage = await(images.get(15));
+        if (tileImage == null) {
+            Log.error("Unable to load tile.png from " + resourcePath);
+            createFallbackTileImage();
+        } else {
+            Log.info("Successfully loaded tile image");
+        }
+
+        // Load the spawner image (entrypoint.png)
+        spawnerImage = await(images.get(16));
+        if (spawnerImage == null) {
+            Log.error("Unable to load entrypoint.png from " + resourcePath);
+        } else {
+            Log.info("Successfully loaded spawner image");
+        }
+
+        buildAtlas();
+    }
+
+    private static PImage await(Future<PImage> image) {
+        try {
+            return image.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return null; // Treated like any image that failed to load
+        }
+    }
+
+    private void buildAtlas() {
+        atlas = new SpriteAtlas();
+        wallSprites = new int[5];
+        ballSprites = new int[5];
+        nextBallSprites = new int[5];
+        holeSprites = new int[5];
+        for (int i = 0; i < 5; i++) {
+            wallSprites[i] = atlas.add(wallImages[i], CELLSIZE, CELLSIZE);
+            ballSprites[i] = atlas.add(ballImages[i], (int) BallStore.BALL_DIAMETER, (int) BallStore.BALL_DIAMETER);
+            nextBallSprites[i] = atlas.add(ballImages[i], LevelRenderer.NEXT_BALL_SIZE, LevelRenderer.NEXT_BALL_SIZE);
+            holeSprites[i] = atlas.add(holeImages[i], CELLSIZE * 2, CELLSIZE * 2);
+        }
+        tileSprite = atlas.add(tileImage, CELLSIZE, CELLSIZE);
+        spawnerSprite = atlas.add(spawnerImage, CELLSIZE, CELLSIZE);
+        atlas.pack();
+    }
+
+    public SpriteAtlas getAtlas() {
+        return atlas;
+    }
+
+    // Helper method to create a fallback tile image
+    private void createFallbackTileImage() {
+        tileImage = createImage(CELLSIZE, CELLSIZE, RGB);
+        tileImage.loadPixels();
+        for (int i = 0; i < tileImage.pixels.length; i++) {
+            tileImage.pixels[i] = color(200);  // Light grey color
+        }
+        tileImage.updatePixels();
+        Log.info("Created fallback tile image");
+    }
+
+    private GameSpec loadConfig() {
+        return new GameSpec(loadJSONObject(configPath));
+    }
+
+    // Runs on the loader threads
+    private LevelTemplate loadTemplate(LevelSpec level, int tickRate) {
+        String layout = level.getLayout();
+        if (LevelFormat.isCompiled(layout)) {
+            return new LevelTemplate(level, ByteBuffer.wrap(loadBytes(layout)), tickRate);
+        }
+        return new LevelTemplate(level, loadStrings(layout), tickRate);
+    }
+
+    private void initializeGame() {
+        if (seed == null) {
+            seed = new Random().nextLong();
+        }
+        game = new Game(spec, catalog, seed);
+        Log.info("Game seed:", seed);
+
+        if (recordPath != null) {
+            try {
+                recorder = new InputRecorder(Paths.get(recordPath), seed, configPath);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to create recording " + recordPath, e);
+            }
+            game.setRecorder(recorder);
+        }
+        simulation = new Simulation(game, input, playback, 1_000_000_000L / spec.getSimulationRate());
+        frame = simulation.acquireFrame();
+    }
+
+    // How far the frame falls into the tick after the one being drawn, as a
+    // fraction for interpolation; a stopped game is drawn where it stands
+    private float interpolation(RenderFrame frame) {
+        if (frame.isPaused() || frame.isEnded()) {
+            return 1;
+        }
+        float alpha = (float) (System.nanoTime() - frame.getTickNanos()) / simulation.getTickNanos();
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    @Override
+    public void draw() {
+        long start = Metrics.now();
+        if (Metrics.ENABLED && lastDrawNanos != 0) {
+            FRAME_INTERVAL.record(start - lastDrawNanos);
+        }
+        lastDrawNanos = start;
+
+        background(255);
+        long time = CLEAR_TIME.recordSince(start);
+
+        frame = simulation.acquireFrame();
+        renderer.display(frame, interpolation(frame));
+        time = DISPLAY_TIME.recordSince(time);
+        displayTopBar(frame);
+        time = TOP_BAR_TIME.recordSince(time);
+
+        if (frame.isPaused()) {
+            displayPausedMessage();
+        } else if (frame.isEnded()) {
+            displayGameEndMessage();
+        } else if (frame.isTimedOut()) {
+            displayTimesUpMessage();
+        }
+        MESSAGE_TIME.recordSince(time);
+        DRAW_TIME.recordSince(start);
+    }
+private void displayTopBar(RenderFrame frame) {
+    // Draw the background of the top bar
+    fill(200);
+    rect(0, 0, WIDTH, TOPBAR);
+
+    // Draw the black box for queued balls
+    fill(0);
+    rect(10, 10, 120, TOPBAR - 20);  // Adjusted black box dimensions
+
+    // Display the next balls horizontally inside the black box
+    renderer.displayNextBalls(frame, 20, 18);  // Adjusted alignment
+
+    // Display the spawn timer **next to the black box**
+    fill(0);  // Black text color
+    textSize(16);
+    textAlign(LEFT, CENTER);
+    text(String.format("%.1f", frame.getSpawnTimeRemaining()), 140, TOPBAR / 2);
+
+    // Display score and time on the right side, aligned vertically
+    fill(0);  // Black text color
+    textSize(20);
+    textAlign(RIGHT, CENTER);
+    text("Score: " + frame.getScore(), WIDTH - 10, TOPBAR / 3);  // Adjusted alignment for score
+    text("Time: " + frame.getRemainingTime(), WIDTH - 10, 2 * TOPBAR / 3);
+}
+
+
+    private void displayPausedMessage() {
+        fill(0);
+        textAlign(CENTER, CENTER);
+        textSize(20);
+        text("*** PAUSED ***", WIDTH / 2, TOPBAR / 2);
+    }
+
+    private void displayGameEndMessage() {
+        fill(0);
+        textAlign(CENTER, CENTER);
+        textSize(20);
+        text("=== ENDED ===", WIDTH / 2, TOPBAR / 2);
+    }
+
+    private void displayTimesUpMessage() {
+        fill(0);
+        textAlign(CENTER, CENTER);
+        textSize(20);
+        text("=== TIME'S UP ===", WIDTH / 2, TOPBAR / 2);
+    }
+
+    @Override
+    public void keyPressed(KeyEvent event) {
+        if (event.getKey() == 'r') {
+            if (playback == null) {
+                if (frame.isEnded()) {
+                    simulation.setPaused(false);
+                }
+                input.offer(InputRecorder.RESTART, 0, 0);
+            }
+        } else if (event.getKey() == ' ') {
+            simulation.setPaused(!simulation.isPaused());
+        } else if (event.getKey() == 'm') {
+            loader.execute(() -> Metrics.dump(System.out)); // Formatting stays off the animation thread
+        }
+    }
+
+    // Live mouse input is ignored during a replay so it can't diverge from the recording
+    private boolean acceptsInput() {
+        return !simulation.isPaused() && !frame.isEnded() && playback == null;
+    }
+
+    @Override
+    public void mousePressed(MouseEvent e) {
+        if (acceptsInput()) {
+            input.offer(InputRecorder.START_LINE, e.getX(), e.getY());
+        }
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        if (acceptsInput()) {
+            if (e.getButton() == LEFT) {
+                input.offer(InputRecorder.CONTINUE_LINE, e.getX(), e.getY());
+            } else if (e.getButton() == RIGHT) {
+                input.offer(InputRecorder.ERASE, e.getX(), e.getY());
+            }
+        }
+    }
+
+    @Override
+    public void mouseReleased(MouseEvent e) {
+        if (acceptsInput()) {
+            input.offer(InputRecorder.FINISH_LINE, 0, 0);
+        }
+    }
+
+    // Sprite ids in the atlas; -1 where the image failed to load
+    public int getWallSprite(int color) {
+        return wallSprites[color];
+    }
+
+    public int getBallSprite(int color) {
+        return ballSprites[color];
+    }
+
+    public int getNextBallSprite(int color) {
+        return nextBallSprites[color];
+    }
+
+    public int getHoleSprite(int color) {
+        return holeSprites[color];
+    }
+
+    public int getTileSprite() {
+        return tileSprite;
+    }
+
+    public int getSpawnerSprite() {
+        return spawnerSprite;
+    }
+
+    public int getScore() {
+        return frame.getScore();
+    }
+
+    @Override
+    public void dispose() {
+        if (simulation != null) {
+            simulation.stop(); // The game can be read directly from here on
+        }
+        if (recorder != null) {
+            try {
+                recorder.close(game.getTick());
+                Log.info("Recorded input events:", recorder.getEventCount());
+            } catch (IOException e) {
+                Log.error("Unable to finish recording " + recordPath);
+            }
+            recorder = null;
+        }
+        if (loader != null) {
+            loader.shutdownNow();
+        }
+        super.dispose();
+    }
+
+    public static void main(String[] args) {
+        PApplet.main("inkball.App", args);
+    }
+}
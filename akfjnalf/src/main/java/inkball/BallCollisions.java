@@ -0,0 +1,111 @@
+package inkball;
+
+import java.util.Arrays;
+
+// Elastic ball-to-ball collisions for levels that turn them on. Each tick the
+// balls are bucketed into a spatial hash with cells one ball across (a counting
+// sort into flat int arrays, so nothing is allocated once the table has grown),
+// and each ball is only tested against the balls in its own and neighbouring
+// cells. That keeps the cost close to linear in the number of balls.
+public class BallCollisions {
+    private static final float CELL = BallStore.BALL_DIAMETER;
+
+    private int[] cellOf = new int[16]; // Hash bucket of each ball
+    private int[] bucketStart = new int[33]; // Balls in bucket b are sorted[bucketStart[b]..bucketStart[b + 1])
+    private int[] sorted = new int[16];
+    private final int[] neighbours = new int[9];
+    private int mask = 31;
+
+    // Bounces every pair of touching balls that are moving towards each other
+    public void resolve(BallStore balls) {
+        int count = balls.size();
+        if (count < 2) {
+            return;
+        }
+        build(balls, count);
+
+        for (int ball = 0; ball < count; ball++) {
+            int column = (int) Math.floor(balls.getX(ball) / CELL);
+            int row = (int) Math.floor(balls.getY(ball) / CELL);
+            int neighbourCount = 0;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int bucket = hash(column + dx, row + dy);
+                    if (!contains(neighbours, neighbourCount, bucket)) { // Cells can share a bucket
+                        neighbours[neighbourCount++] = bucket;
+                    }
+                }
+            }
+            for (int n = 0; n < neighbourCount; n++) {
+                int bucket = neighbours[n];
+                for (int s = bucketStart[bucket]; s < bucketStart[bucket + 1]; s++) {
+                    int other = sorted[s];
+                    if (other > ball) { // Each pair once
+                        collide(balls, ball, other);
+                    }
+                }
+            }
+        }
+    }
+
+    private void build(BallStore balls, int count) {
+        if (cellOf.length < count) {
+            cellOf = new int[count * 2];
+            sorted = new int[count * 2];
+        }
+        if (mask + 1 < count * 2) {
+            mask = Integer.highestOneBit(count * 2) * 2 - 1;
+            bucketStart = new int[mask + 2];
+        }
+
+        Arrays.fill(bucketStart, 0);
+        for (int ball = 0; ball < count; ball++) {
+            int bucket = hash((int) Math.floor(balls.getX(ball) / CELL), (int) Math.floor(balls.getY(ball) / CELL));
+            cellOf[ball] = bucket;
+            bucketStart[bucket + 1]++;
+        }
+        for (int b = 0; b <= mask; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        // Fill forwards using each bucket's start as its cursor, which leaves every
+        // start at the next bucket's start; shifting the table by one restores it
+        for (int ball = 0; ball < count; ball++) {
+            sorted[bucketStart[cellOf[ball]]++] = ball;
+        }
+        System.arraycopy(bucketStart, 0, bucketStart, 1, mask + 1);
+        bucketStart[0] = 0;
+    }
+
+    private int hash(int column, int row) {
+        return (column * 73856093 ^ row * 19349663) & mask;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Equal masses: swap the velocity components along the line between the centres
+    private static void collide(BallStore balls, int a, int b) {
+        float dx = balls.getX(b) - balls.getX(a);
+        float dy = balls.getY(b) - balls.getY(a);
+        float reach = balls.getRadius(a) + balls.getRadius(b);
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared >= reach * reach || distanceSquared == 0) {
+            return;
+        }
+        float distance = (float) Math.sqrt(distanceSquared);
+        float nx = dx / distance;
+        float ny = dy / distance;
+        float closing = (balls.getVx(a) - balls.getVx(b)) * nx + (balls.getVy(a) - balls.getVy(b)) * ny;
+        if (closing <= 0) {
+            return; // Already separating
+        }
+        balls.setVelocity(a, balls.getVx(a) - closing * nx, balls.getVy(a) - closing * ny);
+        balls.setVelocity(b, balls.getVx(b) + closing * nx, balls.getVy(b) + closing * ny);
+    }
+}
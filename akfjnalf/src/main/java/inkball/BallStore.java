@@ -0,0 +1,210 @@
+package inkball;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Ball state kept as parallel primitive arrays so a tick walks contiguous memory
+// and never allocates per ball. Balls are addressed by index; removal compacts
+// the arrays in place while keeping the remaining balls in order.
+public class BallStore {
+    public static final float BALL_RADIUS = 12;
+    public static final float BALL_DIAMETER = BALL_RADIUS * 2;
+    private static final float MAX_SPEED = 5;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final float timeStep; // Fraction of a reference tick covered by one update
+    private float[] x;
+    private float[] y;
+    private float[] previousX; // Position before the last move, for render interpolation
+    private float[] previousY;
+    private float[] vx;
+    private float[] vy;
+    private float[] radius;
+    private int[] color;
+    private int size;
+
+    public BallStore() {
+        this(1);
+    }
+
+    public BallStore(float timeStep) {
+        this.timeStep = timeStep;
+        x = new float[INITIAL_CAPACITY];
+        y = new float[INITIAL_CAPACITY];
+        previousX = new float[INITIAL_CAPACITY];
+        previousY = new float[INITIAL_CAPACITY];
+        vx = new float[INITIAL_CAPACITY];
+        vy = new float[INITIAL_CAPACITY];
+        radius = new float[INITIAL_CAPACITY];
+        color = new int[INITIAL_CAPACITY];
+    }
+
+    // Adds a ball moving diagonally in a random direction, returning its index
+    public int add(float ballX, float ballY, int ballColor, Random random) {
+        if (size == x.length) {
+            grow();
+        }
+        int i = size++;
+        x[i] = ballX;
+        y[i] = ballY;
+        previousX[i] = ballX;
+        previousY[i] = ballY;
+        vx[i] = random.nextBoolean() ? 2 : -2;
+        vy[i] = random.nextBoolean() ? 2 : -2;
+        radius[i] = BALL_RADIUS;
+        color[i] = ballColor;
+        return i;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        color = Arrays.copyOf(color, capacity);
+    }
+
+    // Moves ball `from` into slot `to`; used to compact the store after removals
+    public void copy(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        previousX[to] = previousX[from];
+        previousY[to] = previousY[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        radius[to] = radius[from];
+        color[to] = color[from];
+    }
+
+    // Replaces this store's balls with a copy of other's, reusing the arrays when they are big enough
+    public void copyFrom(BallStore other) {
+        while (x.length < other.size) {
+            grow();
+        }
+        System.arraycopy(other.x, 0, x, 0, other.size);
+        System.arraycopy(other.y, 0, y, 0, other.size);
+        System.arraycopy(other.previousX, 0, previousX, 0, other.size);
+        System.arraycopy(other.previousY, 0, previousY, 0, other.size);
+        System.arraycopy(other.vx, 0, vx, 0, other.size);
+        System.arraycopy(other.vy, 0, vy, 0, other.size);
+        System.arraycopy(other.radius, 0, radius, 0, other.size);
+        System.arraycopy(other.color, 0, color, 0, other.size);
+        size = other.size;
+    }
+
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Starts a move made of one or more translate() steps, e.g. a swept move that bounces part way
+    public void beginMove(int i) {
+        previousX[i] = x[i];
+        previousY[i] = y[i];
+    }
+
+    public void translate(int i, float dx, float dy) {
+        x[i] += dx;
+        y[i] += dy;
+    }
+
+    // Mirrors the velocity about the normal (nx, ny), which need not be unit length
+    public void reflect(int i, float nx, float ny) {
+        float length = (float) Math.sqrt(nx * nx + ny * ny);
+        if (length != 0) {
+            nx /= length;
+            ny /= length;
+        }
+        float dot = vx[i] * nx + vy[i] * ny;
+        vx[i] -= 2 * dot * nx;
+        vy[i] -= 2 * dot * ny;
+    }
+
+    public void reverseX(int i) {
+        vx[i] *= -1;
+    }
+
+    public void reverseY(int i) {
+        vy[i] *= -1;
+    }
+
+    public void applyForce(int i, float forceX, float forceY) {
+        vx[i] += forceX;
+        vy[i] += forceY;
+
+        float speed = (float) Math.sqrt(vx[i] * vx[i] + vy[i] * vy[i]);
+        if (speed > MAX_SPEED) {
+            vx[i] = vx[i] / speed * MAX_SPEED;
+            vy[i] = vy[i] / speed * MAX_SPEED;
+        }
+        if (Log.DEBUG) {
+            Log.debug("Ball velocity after force:", vx[i], vy[i]);
+        }
+    }
+
+    public void setPosition(int i, float ballX, float ballY) {
+        x[i] = ballX;
+        y[i] = ballY;
+    }
+
+    public void setVelocity(int i, float ballVx, float ballVy) {
+        vx[i] = ballVx;
+        vy[i] = ballVy;
+    }
+
+    public void setColor(int i, int ballColor) {
+        color[i] = ballColor;
+    }
+
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    // Position blended between the last two ticks; alpha 0 is the previous tick, 1 the current
+    public float getInterpolatedX(int i, float alpha) {
+        return previousX[i] + (x[i] - previousX[i]) * alpha;
+    }
+
+    public float getInterpolatedY(int i, float alpha) {
+        return previousY[i] + (y[i] - previousY[i]) * alpha;
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    public float getVx(int i) {
+        return vx[i];
+    }
+
+    public float getVy(int i) {
+        return vy[i];
+    }
+
+    public float getRadius(int i) {
+        return radius[i];
+    }
+
+    public int getColor(int i) {
+        return color[i];
+    }
+}
@@ -0,0 +1,179 @@
+package inkball;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Plays every level in a config many times as independent headless simulations
+// spread over all cores, then reports completion rate, score and time bonus
+// distributions per level. Each run gets its own seed so results are repeatable.
+//
+// Usage: BatchRunner [config.json] [runs per level] [seed] [threads]
+public class BatchRunner {
+
+    // Drives player input during a run, e.g. placing lines at scripted times
+    public interface PlayerScript {
+        void onTick(Level level, int tick, Random random);
+    }
+
+    // Default script: every few seconds draws a short line somewhere on the board
+    public static final PlayerScript RANDOM_LINES = (level, tick, random) -> {
+        if (tick % (level.getTickRate() * 3) != 0) {
+            return;
+        }
+        int x = App.CELLSIZE + random.nextInt(App.WIDTH - 3 * App.CELLSIZE);
+        int y = App.TOPBAR + App.CELLSIZE + random.nextInt(App.HEIGHT - App.TOPBAR - 3 * App.CELLSIZE);
+        level.startDrawingLine(x, y);
+        level.continueDrawingLine(x + App.CELLSIZE, y + random.nextInt(App.CELLSIZE) - App.CELLSIZE / 2);
+        level.finishDrawingLine();
+    };
+
+    private static final int MAX_SECONDS = 600; // Cap for levels without a time limit
+
+    private final GameSpec spec;
+    private final List<LevelTemplate> templates;
+    private final PlayerScript script;
+
+    public BatchRunner(Path configPath, PlayerScript script) throws IOException {
+        this.spec = LevelLoader.loadSpec(configPath);
+        this.script = script;
+        this.templates = LevelLoader.loadTemplates(configPath, spec);
+    }
+
+    public static final class RunResult {
+        public final int levelIndex;
+        public final long seed;
+        public final boolean completed;
+        public final int score;
+        public final int timeBonus;
+        public final int ticks;
+
+        RunResult(int levelIndex, long seed, boolean completed, int score, int timeBonus, int ticks) {
+            this.levelIndex = levelIndex;
+            this.seed = seed;
+            this.completed = completed;
+            this.score = score;
+            this.timeBonus = timeBonus;
+            this.ticks = ticks;
+        }
+    }
+
+    public int getLevelCount() {
+        return templates.size();
+    }
+
+    // Plays one level to completion, time-out or the tick cap
+    public RunResult runOnce(int levelIndex, long seed) {
+        int[] score = new int[1];
+        Random random = new Random(seed);
+        Random scriptRandom = new Random(~seed);
+        Level level = new Level(templates.get(levelIndex), random, change -> score[0] += change);
+
+        int maxTicks = MAX_SECONDS * level.getTickRate();
+        int tick = 0;
+        while (!level.isCompleted() && !level.isTimedOut() && tick < maxTicks) {
+            script.onTick(level, tick, scriptRandom);
+            level.update();
+            tick++;
+        }
+
+        int timeBonus = level.isCompleted() ? level.completeLevel() : 0;
+        return new RunResult(levelIndex, seed, level.isCompleted(), score[0], timeBonus, tick);
+    }
+
+    // Runs every level `runs` times on the given number of threads; results are grouped by level
+    public List<List<RunResult>> run(int runs, long baseSeed, int threads) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<List<Future<RunResult>>> futures = new ArrayList<>();
+            for (int levelIndex = 0; levelIndex < templates.size(); levelIndex++) {
+                List<Future<RunResult>> levelFutures = new ArrayList<>(runs);
+                for (int run = 0; run < runs; run++) {
+                    int index = levelIndex;
+                    long seed = seedFor(baseSeed, levelIndex, run);
+                    levelFutures.add(executor.submit(() -> runOnce(index, seed)));
+                }
+                futures.add(levelFutures);
+            }
+
+            List<List<RunResult>> results = new ArrayList<>();
+            for (List<Future<RunResult>> levelFutures : futures) {
+                List<RunResult> levelResults = new ArrayList<>(levelFutures.size());
+                for (Future<RunResult> future : levelFutures) {
+                    levelResults.add(future.get());
+                }
+                results.add(levelResults);
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static long seedFor(long baseSeed, int levelIndex, int run) {
+        return baseSeed + levelIndex * 1_000_003L + run;
+    }
+
+    public static String report(List<List<RunResult>> results) {
+        StringBuilder out = new StringBuilder();
+        for (int levelIndex = 0; levelIndex < results.size(); levelIndex++) {
+            List<RunResult> levelResults = results.get(levelIndex);
+            int runs = levelResults.size();
+            int completed = 0;
+            int[] scores = new int[runs];
+            int[] timeBonuses = new int[runs];
+            for (int i = 0; i < runs; i++) {
+                RunResult result = levelResults.get(i);
+                if (result.completed) {
+                    completed++;
+                }
+                scores[i] = result.score;
+                timeBonuses[i] = result.timeBonus;
+            }
+            out.append(String.format("Level %d: %d runs, completion rate %.1f%%%n",
+                    levelIndex + 1, runs, runs == 0 ? 0 : 100.0 * completed / runs));
+            out.append("  score      ").append(distribution(scores)).append(System.lineSeparator());
+            out.append("  time bonus ").append(distribution(timeBonuses)).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private static String distribution(int[] values) {
+        if (values.length == 0) {
+            return "n/a";
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        return String.format("mean %.1f  min %d  p50 %d  p90 %d  p99 %d  max %d",
+                mean, sorted[0], percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), sorted[sorted.length - 1]);
+    }
+
+    private static int percentile(int[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path configPath = Paths.get(args.length > 0 ? args[0] : "config.json");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        BatchRunner runner = new BatchRunner(configPath, RANDOM_LINES);
+        long start = System.nanoTime();
+        List<List<RunResult>> results = runner.run(runs, seed, threads);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.print(report(results));
+        System.out.printf("%d runs on %d threads in %d ms%n", runs * runner.getLevelCount(), threads, elapsedMillis);
+    }
+}
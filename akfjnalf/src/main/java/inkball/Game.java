@@ -0,0 +1,200 @@
+package inkball;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+// A headless play-through of every level in a config: level progression, the
+// running score and player input. All randomness comes from one seeded Random
+// and time only advances through tick(), so the same seed and the same input
+// at the same ticks always produce the same game. Levels are built when play
+// reaches them, and the following level's layout is prefetched meanwhile.
+public class Game {
+    private final GameSpec spec;
+    private final LevelCatalog catalog;
+    private final Level[] levels;
+    private final Random random;
+    private final long seed;
+    private int currentLevelIndex;
+    private Level currentLevel;
+    private int score;
+    private boolean ended;
+    private int tick;
+    private InputRecorder recorder;
+
+    public Game(GameSpec spec, List<LevelTemplate> templates, long seed) {
+        this(spec, LevelCatalog.of(spec, templates), seed);
+    }
+
+    public Game(GameSpec spec, LevelCatalog catalog, long seed) {
+        this.spec = spec;
+        this.catalog = catalog;
+        this.seed = seed;
+        this.random = new Random(seed);
+        this.levels = new Level[catalog.size()];
+        startGame();
+    }
+
+    public static Game load(Path configPath, long seed) throws IOException {
+        GameSpec spec = LevelLoader.loadSpec(configPath);
+        return new Game(spec, LevelLoader.loadTemplates(configPath, spec), seed);
+    }
+
+    private void startGame() {
+        currentLevelIndex = 0;
+        score = 0;
+        ended = false;
+        startLevel();
+    }
+
+    // Levels are created on the game thread as play reaches them, so the
+    // shared Random is always drawn from in the same order
+    private void startLevel() {
+        if (levels[currentLevelIndex] == null) {
+            levels[currentLevelIndex] = new Level(catalog.get(currentLevelIndex), random, this::updateScore);
+        }
+        currentLevel = levels[currentLevelIndex];
+        catalog.prefetch(currentLevelIndex + 1);
+    }
+
+    // Advances the current level by one simulation tick
+    public void tick() {
+        if (ended) {
+            return;
+        }
+        currentLevel.update();
+        tick++;
+        if (currentLevel.isCompleted()) {
+            handleLevelCompletion();
+        }
+    }
+
+    private void handleLevelCompletion() {
+        int timeBonus = currentLevel.completeLevel();
+        score += timeBonus;
+        Log.info("Level completed! Time bonus:", timeBonus);
+        currentLevelIndex++;
+        if (currentLevelIndex < levels.length) {
+            startLevel();
+        } else {
+            ended = true;
+            Log.info("=== ENDED ===");
+        }
+    }
+
+    private void updateScore(int scoreChange) {
+        score += scoreChange;
+        if (Log.DEBUG) {
+            Log.debug("Score updated:", score);
+        }
+    }
+
+    // Applies one input event, of InputRecorder's types, as if it had just arrived
+    public void apply(byte type, int x, int y) {
+        switch (type) {
+            case InputRecorder.START_LINE:
+                startDrawingLine(x, y);
+                break;
+            case InputRecorder.CONTINUE_LINE:
+                continueDrawingLine(x, y);
+                break;
+            case InputRecorder.FINISH_LINE:
+                finishDrawingLine();
+                break;
+            case InputRecorder.ERASE:
+                removeLineAt(x, y);
+                break;
+            case InputRecorder.RESTART:
+                restart();
+                break;
+            default:
+                Log.warn("Unknown input event type:", type);
+        }
+    }
+
+    // Restarts the current level, or the whole game once it has ended
+    public void restart() {
+        record(InputRecorder.RESTART, 0, 0);
+        if (ended) {
+            for (Level level : levels) {
+                if (level != null) {
+                    level.restart();
+                }
+            }
+            startGame();
+        } else {
+            currentLevel.restart();
+        }
+    }
+
+    public void startDrawingLine(int x, int y) {
+        if (!ended) {
+            record(InputRecorder.START_LINE, x, y);
+            currentLevel.startDrawingLine(x, y);
+        }
+    }
+
+    public void continueDrawingLine(int x, int y) {
+        if (!ended) {
+            record(InputRecorder.CONTINUE_LINE, x, y);
+            currentLevel.continueDrawingLine(x, y);
+        }
+    }
+
+    public void finishDrawingLine() {
+        if (!ended) {
+            record(InputRecorder.FINISH_LINE, 0, 0);
+            currentLevel.finishDrawingLine();
+        }
+    }
+
+    public void removeLineAt(int x, int y) {
+        if (!ended) {
+            record(InputRecorder.ERASE, x, y);
+            currentLevel.removeLineAt(x, y);
+        }
+    }
+
+    private void record(byte type, int x, int y) {
+        if (recorder != null) {
+            recorder.record(type, tick, x, y);
+        }
+    }
+
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public GameSpec getSpec() {
+        return spec;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getTickRate() {
+        return currentLevel.getTickRate();
+    }
+
+    public Level getCurrentLevel() {
+        return currentLevel;
+    }
+
+    public int getCurrentLevelIndex() {
+        return currentLevelIndex;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+}
@@ -0,0 +1,40 @@
+package inkball;
+
+import processing.data.JSONArray;
+import processing.data.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// config.json compiled into typed, immutable settings when the game loads.
+// Nothing keeps the JSON tree afterwards; levels read their LevelSpec.
+public final class GameSpec {
+    private static final int DEFAULT_FRAME_RATE = 60; // Frames per second drawn when the config does not say
+    private final int simulationRate; // Ticks per second
+    private final int frameRate;
+    private final List<LevelSpec> levels;
+
+    public GameSpec(JSONObject config) {
+        this.simulationRate = config.getInt("simulation_rate", App.FPS);
+        this.frameRate = config.getInt("frame_rate", DEFAULT_FRAME_RATE);
+        List<LevelSpec> levels = new ArrayList<>();
+        JSONArray levelsConfig = config.getJSONArray("levels");
+        for (int i = 0; i < levelsConfig.size(); i++) {
+            levels.add(new LevelSpec(levelsConfig.getJSONObject(i), config));
+        }
+        this.levels = Collections.unmodifiableList(levels);
+    }
+
+    public int getSimulationRate() {
+        return simulationRate;
+    }
+
+    public int getFrameRate() {
+        return frameRate;
+    }
+
+    public List<LevelSpec> getLevels() {
+        return levels;
+    }
+}
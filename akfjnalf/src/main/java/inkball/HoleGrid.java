@@ -0,0 +1,72 @@
+package inkball;
+
+import java.util.Arrays;
+import java.util.List;
+
+// For each board cell, the holes whose attraction radius reaches into it, baked
+// once per layout. A ball looks up its cell and only tests those holes (at most
+// one on any sane layout) instead of every hole on the board. Each cell's holes
+// keep their layout order, so captures and pulls resolve exactly as a full scan.
+public class HoleGrid {
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart; // Holes for cell c are holeIds[cellStart[c]..cellStart[c + 1])
+    private final int[] holeIds;
+
+    public HoleGrid(int columns, int rows, List<Hole> holes) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cellStart = new int[columns * rows + 1];
+        int[] ids = new int[Math.max(1, holes.size() * 4)]; // A hole normally covers its own 2x2 cells
+        int total = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                cellStart[row * columns + column] = total;
+                for (int i = 0; i < holes.size(); i++) {
+                    if (reaches(holes.get(i), column, row)) {
+                        if (total == ids.length) {
+                            ids = Arrays.copyOf(ids, total * 2);
+                        }
+                        ids[total++] = i;
+                    }
+                }
+            }
+        }
+        cellStart[columns * rows] = total;
+        this.holeIds = Arrays.copyOf(ids, total);
+    }
+
+    // Whether the hole's attraction circle overlaps the cell
+    private static boolean reaches(Hole hole, int column, int row) {
+        float left = column * App.CELLSIZE;
+        float top = row * App.CELLSIZE + App.TOPBAR;
+        float closestX = Math.max(left, Math.min(hole.getX(), left + App.CELLSIZE));
+        float closestY = Math.max(top, Math.min(hole.getY(), top + App.CELLSIZE));
+        return VectorMath.distanceSquared(hole.getX(), hole.getY(), closestX, closestY)
+                < Hole.ATTRACTION_RADIUS * Hole.ATTRACTION_RADIUS;
+    }
+
+    // Cell containing (x, y), or -1 off the board
+    public int cellOf(float x, float y) {
+        int column = (int) Math.floor(x / App.CELLSIZE);
+        int row = (int) Math.floor((y - App.TOPBAR) / App.CELLSIZE);
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+
+    // Holes near cell are getHole(i) for i from start(cell) up to end(cell)
+    public int start(int cell) {
+        return cellStart[cell];
+    }
+
+    public int end(int cell) {
+        return cellStart[cell + 1];
+    }
+
+    // Position in the level's hole list
+    public int getHole(int i) {
+        return holeIds[i];
+    }
+}
@@ -0,0 +1,151 @@
+package inkball;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Reads a recording made by InputRecorder and feeds its events back into a
+// Game at the ticks they were recorded on. The game only has to be built from
+// the same config and seed; the windowed app replays at normal speed, main()
+// replays headless as fast as the CPU allows.
+//
+// Usage: InputPlayback <recording>
+public class InputPlayback {
+    private final long seed;
+    private final String configPath;
+    private final int endTick;
+    private final byte[] types;
+    private final int[] ticks;
+    private final short[] xs;
+    private final short[] ys;
+    private final int eventCount;
+    private int next;
+
+    private InputPlayback(long seed, String configPath, int endTick, byte[] types, int[] ticks, short[] xs, short[] ys, int eventCount) {
+        this.seed = seed;
+        this.configPath = configPath;
+        this.endTick = endTick;
+        this.types = types;
+        this.ticks = ticks;
+        this.xs = xs;
+        this.ys = ys;
+        this.eventCount = eventCount;
+    }
+
+    public static InputPlayback load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new IOException("Not an input recording: " + path);
+            }
+            int version = in.readUnsignedByte();
+            if (version != InputRecorder.VERSION) {
+                throw new IOException("Unsupported recording version " + version + ": " + path);
+            }
+            long seed = in.readLong();
+            String configPath = in.readUTF();
+
+            int capacity = 256;
+            byte[] types = new byte[capacity];
+            int[] ticks = new int[capacity];
+            short[] xs = new short[capacity];
+            short[] ys = new short[capacity];
+            int count = 0;
+            int tick = 0;
+            while (true) {
+                byte type = in.readByte();
+                tick += readVarint(in);
+                if (type == InputRecorder.END) {
+                    return new InputPlayback(seed, configPath, tick, types, ticks, xs, ys, count);
+                }
+                if (count == capacity) {
+                    capacity *= 2;
+                    types = Arrays.copyOf(types, capacity);
+                    ticks = Arrays.copyOf(ticks, capacity);
+                    xs = Arrays.copyOf(xs, capacity);
+                    ys = Arrays.copyOf(ys, capacity);
+                }
+                types[count] = type;
+                ticks[count] = tick;
+                if (InputRecorder.hasPosition(type)) {
+                    xs[count] = in.readShort();
+                    ys[count] = in.readShort();
+                }
+                count++;
+            }
+        }
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    // Applies every event recorded for the game's current tick, i.e. before that tick runs
+    public void applyDue(Game game) {
+        while (next < eventCount && ticks[next] <= game.getTick()) {
+            game.apply(types[next], xs[next], ys[next]);
+            next++;
+        }
+    }
+
+    // True once every event has been applied and the recorded end tick is reached
+    public boolean isFinished(Game game) {
+        return next == eventCount && (game.getTick() >= endTick || game.isEnded());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getConfigPath() {
+        return configPath;
+    }
+
+    public int getEndTick() {
+        return endTick;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: InputPlayback <recording>");
+            System.exit(1);
+        }
+        Path recordingPath = Paths.get(args[0]);
+        InputPlayback playback = load(recordingPath);
+        Path configPath = Paths.get(playback.getConfigPath());
+        if (!configPath.isAbsolute() && recordingPath.toAbsolutePath().getParent() != null && !Files.exists(configPath)) {
+            configPath = recordingPath.toAbsolutePath().getParent().resolve(configPath);
+        }
+        Game game = Game.load(configPath, playback.getSeed());
+
+        long start = System.nanoTime();
+        while (!playback.isFinished(game)) {
+            playback.applyDue(game);
+            if (game.isEnded()) {
+                break; // Nothing due restarted it, so no later event can apply
+            }
+            game.tick();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Replayed %d events over %d ticks in %d ms (%.0f ticks/s)%n",
+                playback.getEventCount(), game.getTick(), elapsed / 1_000_000, game.getTick() * 1e9 / Math.max(1, elapsed));
+        System.out.printf("Level %d, score %d%s%n",
+                game.getCurrentLevelIndex() + 1, game.getScore(), game.isEnded() ? ", game ended" : "");
+    }
+}
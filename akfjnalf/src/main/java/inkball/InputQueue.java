@@ -0,0 +1,79 @@
+package inkball;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Player input handed from the event thread to the game loop. It is a lock-free
+// single-producer, single-consumer ring: the event thread is the only writer of
+// tail and the game loop the only writer of head, and each publishes its index
+// with a release store (lazySet) after touching the slots, so neither side ever
+// blocks. The game loop drains everything queued once per tick, which gives
+// every input a definite tick and keeps line state owned by the game thread.
+// When the ring is full new inputs are dropped and counted. A game loop with
+// nothing to do can park in await() until the next input arrives.
+public final class InputQueue {
+    private static final int CAPACITY = 1024; // Must be a power of two
+    private static final int MASK = CAPACITY - 1;
+
+    // Event types are InputRecorder's, so a drained command is applied like a replayed one
+    private final byte[] types = new byte[CAPACITY];
+    private final int[] xs = new int[CAPACITY];
+    private final int[] ys = new int[CAPACITY];
+    private final long[] times = new long[CAPACITY]; // System.nanoTime() when the input arrived
+
+    private final AtomicLong head = new AtomicLong(); // Next slot to drain
+    private final AtomicLong tail = new AtomicLong(); // Next slot to fill
+    private long dropped; // Only touched by the producer
+    private volatile Thread waiter; // Consumer parked in await(), if any
+
+    // Producer side. Returns false, dropping the input, if the game loop has fallen a full ring behind.
+    public boolean offer(byte type, int x, int y) {
+        long slot = tail.get();
+        if (slot - head.get() == CAPACITY) {
+            dropped++;
+            Log.warn("Input queue full, inputs dropped:", dropped);
+            return false;
+        }
+        int i = (int) slot & MASK;
+        types[i] = type;
+        xs[i] = x;
+        ys[i] = y;
+        times[i] = System.nanoTime();
+        tail.lazySet(slot + 1);
+        Thread parked = waiter;
+        if (parked != null) {
+            LockSupport.unpark(parked);
+        }
+        return true;
+    }
+
+    // Consumer side. Parks until an input is offered, the thread is unparked or the
+    // timeout passes. The release store in offer() can let a wake-up slip past a
+    // consumer that is just going to sleep, so the timeout also bounds that delay.
+    public void await(long timeoutNanos) {
+        waiter = Thread.currentThread();
+        if (isEmpty()) {
+            LockSupport.parkNanos(this, timeoutNanos);
+        }
+        waiter = null;
+    }
+
+    // Consumer side. Applies every queued input to the game in arrival order and returns how many there were.
+    public int drain(Game game) {
+        long start = head.get();
+        long end = tail.get();
+        for (long slot = start; slot < end; slot++) {
+            int i = (int) slot & MASK;
+            game.apply(types[i], xs[i], ys[i]);
+            if (Log.DEBUG) {
+                Log.debug("Input applied after micros:", (System.nanoTime() - times[i]) / 1000);
+            }
+        }
+        head.lazySet(end);
+        return (int) (end - start);
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+}
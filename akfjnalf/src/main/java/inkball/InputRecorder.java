@@ -0,0 +1,81 @@
+package inkball;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Writes every player input a Game receives, stamped with the tick it arrived
+// on, so the game can be replayed exactly by InputPlayback. A recording holds a
+// header (magic, version, seed, config path) followed by events: a type byte,
+// the tick delta since the previous event as a varint and, for events with a
+// position, x and y as shorts. An END event carries the final tick.
+public class InputRecorder implements Closeable {
+    static final int MAGIC = 0x494E4B52; // "INKR"
+    static final int VERSION = 2; // 2: levels are built lazily, which changes the order of random draws
+
+    static final byte END = 0;
+    static final byte START_LINE = 1;
+    static final byte CONTINUE_LINE = 2;
+    static final byte FINISH_LINE = 3;
+    static final byte ERASE = 4;
+    static final byte RESTART = 5;
+
+    private final DataOutputStream out;
+    private int lastTick;
+    private int eventCount;
+
+    public InputRecorder(Path path, long seed, String configPath) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeUTF(configPath);
+    }
+
+    void record(byte type, int tick, int x, int y) {
+        try {
+            writeEvent(type, tick);
+            if (hasPosition(type)) {
+                out.writeShort(x);
+                out.writeShort(y);
+            }
+            eventCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeEvent(byte type, int tick) throws IOException {
+        out.writeByte(type);
+        int delta = tick - lastTick;
+        while ((delta & ~0x7F) != 0) {
+            out.writeByte((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        out.writeByte(delta);
+        lastTick = tick;
+    }
+
+    static boolean hasPosition(byte type) {
+        return type == START_LINE || type == CONTINUE_LINE || type == ERASE;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    // Marks the tick the recording stopped at and closes the file
+    public void close(int finalTick) throws IOException {
+        writeEvent(END, finalTick);
+        close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
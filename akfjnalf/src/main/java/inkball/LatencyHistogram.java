@@ -0,0 +1,175 @@
+package inkball;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Durations in nanoseconds, counted in log-linear buckets the way HdrHistogram
+// does it: every power of two is split into 32 equal sub-buckets, so any value
+// is reported within about 3% while the whole long range fits in a fixed array
+// of under 2000 counters. Count and mean are derived from the buckets.
+//
+// The counters are striped: a thread records into one of a fixed number of
+// counter sets, picked by its id, so threads on different cores rarely touch
+// the same cache lines. Stripes are allocated on first use and never grow in
+// number, however many threads come and go. Reads merge the stripes; they see
+// each counter exactly but the set of counters only approximately at one instant.
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int MAX = BUCKETS; // Slot after the buckets holds the stripe's largest value
+    private static final int STRIPES = stripeCount();
+
+    private final String name;
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    // A power of two at least the number of cores, capped at 16
+    private static int stripeCount() {
+        int cores = Math.min(16, Runtime.getRuntime().availableProcessors());
+        return Integer.highestOneBit(cores * 2 - 1);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0; // nanoTime is monotonic, but be safe with hand-fed values
+        }
+        AtomicLongArray counts = stripe();
+        counts.incrementAndGet(indexOf(nanos));
+        long previous = counts.get(MAX);
+        while (nanos > previous && !counts.compareAndSet(MAX, previous, nanos)) {
+            previous = counts.get(MAX);
+        }
+    }
+
+    private AtomicLongArray stripe() {
+        int index = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray counts = stripes.get(index);
+        if (counts == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS + 1));
+            counts = stripes.get(index);
+        }
+        return counts;
+    }
+
+    // Every stripe's counts added together, with the overall largest value in the MAX slot
+    private long[] merge() {
+        long[] merged = new long[BUCKETS + 1];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            AtomicLongArray counts = stripes.get(stripe);
+            if (counts == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += counts.get(i);
+            }
+            merged[MAX] = Math.max(merged[MAX], counts.get(MAX));
+        }
+        return merged;
+    }
+
+    // Records the time since start (from Metrics.now()) and returns the current
+    // time, so consecutive phases can be timed with one clock read each
+    public long recordSince(long start) {
+        if (!Metrics.ENABLED) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        record(now - start);
+        return now;
+    }
+
+    // Values below 32 get a bucket each; above that, the top five bits after the leading one pick the sub-bucket
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // Smallest value that lands in the bucket
+    private static long lowestValueIn(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+
+    // Largest value that lands in the bucket
+    private static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    // Value that percentile percent of recordings are at or below, to within the bucket width
+    public long getValueAtPercentile(double percentile) {
+        long[] merged = merge();
+        long recorded = countOf(merged);
+        if (recorded == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += merged[i];
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), merged[MAX]);
+            }
+        }
+        return merged[MAX];
+    }
+
+    private static long countOf(long[] merged) {
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            recorded += merged[i];
+        }
+        return recorded;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return countOf(merge());
+    }
+
+    public long getMax() {
+        return merge()[MAX];
+    }
+
+    // Taking every recording as the middle of its bucket, so as accurate as the buckets
+    public double getMean() {
+        long[] merged = merge();
+        long recorded = 0;
+        double total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            recorded += merged[i];
+            total += merged[i] * ((lowestValueIn(i) + highestValueIn(i)) / 2.0);
+        }
+        return recorded == 0 ? 0 : total / recorded;
+    }
+
+    // Clears every stripe; recordings racing with the reset may survive it
+    public void reset() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            AtomicLongArray counts = stripes.get(stripe);
+            if (counts == null) {
+                continue;
+            }
+            for (int i = 0; i <= MAX; i++) {
+                counts.set(i, 0);
+            }
+        }
+    }
+}
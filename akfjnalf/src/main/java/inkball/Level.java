@@ -1,370 +1,491 @@
-package inkball;
-
-import processing.core.PVector;
-import processing.data.JSONObject;
-import processing.data.JSONArray;
-
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-
-public class Level {
-    private App app;
-    private JSONObject config;
-    private List<Ball> balls;
-    private List<Hole> holes;
-    private List<Spawner> spawners;
-    private List<Wall> walls;
-    private List<String> nextBalls;
-    private int remainingTime;
-    private int spawnInterval;
-    private int spawnCounter;
-    private float scoreIncreaseModifier;
-    private float scoreDecreaseModifier;
-    private boolean levelCompleted;
-    private boolean gameOver;
-    private boolean timedOut;
-    
-    private List<PlayerLine> playerLines;
-    private PlayerLine currentLine;
-
-    public Level(JSONObject config, App app) {
-        this.app = app;
-        this.config = config;
-        this.balls = new ArrayList<>();
-        this.holes = new ArrayList<>();
-        this.spawners = new ArrayList<>();
-        this.walls = new ArrayList<>();
-        this.nextBalls = new ArrayList<>();
-        this.playerLines = new ArrayList<>();
-        this.currentLine = null;
-        loadLayout();
-        initializeEntities();
-    }
-
-  private void loadLayout() {
-    String layoutFile = config.getString("layout");
-    String[] lines = app.loadStrings(layoutFile);
-
-    for (int i = 0; i < lines.length; i++) {
-        for (int j = 0; j < lines[i].length(); j++) {
-            char c = lines[i].charAt(j);
-            float x = j * App.CELLSIZE;
-            float y = i * App.CELLSIZE + App.TOPBAR;
-
-            switch (c) {
-                case 'X':
-                    walls.add(new Wall(x, y, 0, app.getWallImage(0)));
-                    break;
-                case '1':
-                case '2':
-                case '3':
-                case '4':
-                    int wallColor = Character.getNumericValue(c);
-                    walls.add(new Wall(x, y, wallColor, app.getWallImage(wallColor)));
-                    break;
-                case 'S':
-                    spawners.add(new Spawner(x, y, app.getSpawnerImage()));  // Correct usage
-                    break;
-                case 'H':
-                    if (j + 1 < lines[i].length()) {
-                        int holeColor = Character.getNumericValue(lines[i].charAt(j + 1));
-                        holes.add(new Hole(x, y, holeColor, app));
-                        j++;  // Skip the next character as it's the hole color
-                    }
-                    break;
-                case 'B':
-                    if (j + 1 < lines[i].length()) {
-                        int ballColor = Character.getNumericValue(lines[i].charAt(j + 1));
-                        balls.add(new Ball(x + App.CELLSIZE / 2, y + App.CELLSIZE / 2, ballColor));
-                        j++;  // Skip the next character as it's the ball color
-                    }
-                    break;
-            }
-        }
-    }
-}
-
-
-
-    private void initializeEntities() {
-        scoreIncreaseModifier = config.getFloat("score_increase_from_hole_capture_modifier", 1.0f);
-        scoreDecreaseModifier = config.getFloat("score_decrease_from_wrong_hole_modifier", 1.0f);
-        remainingTime = config.getInt("time", -1) * App.FPS;
-        spawnInterval = config.getInt("spawn_interval") * App.FPS;
-        spawnCounter = spawnInterval;
-        generateNextBalls();
-    }
-
-    private void generateNextBalls() {
-        JSONArray ballsConfig = config.getJSONArray("balls");
-        for (int i = 0; i < ballsConfig.size(); i++) {
-            nextBalls.add(ballsConfig.getString(i));
-        }
-    }
-
-    public void update() {
-        if (levelCompleted || gameOver || timedOut) {
-            return;
-        }
-        
-        updateTimer();
-        updateBallSpawning();
-        updateBalls();
-        checkLevelCompletion();
-    }
-
-    private void updateTimer() {
-        if (remainingTime > 0) {
-            remainingTime--;
-            if (remainingTime == 0) {
-                timedOut = true;
-                System.out.println("=== TIME'S UP ===");
-            }
-        }
-    }
-
-    private void updateBallSpawning() {
-        spawnCounter--;
-        if (spawnCounter <= 0 && !nextBalls.isEmpty()) {
-            spawnBall();
-            spawnCounter = spawnInterval;
-        }
-    }
-
-    private void spawnBall() {
-        if (!spawners.isEmpty() && !nextBalls.isEmpty()) {
-            Spawner spawner = spawners.get(App.random.nextInt(spawners.size()));
-            String colorName = nextBalls.remove(0);
-            int color = getColorIndex(colorName);
-            balls.add(new Ball(spawner.getX(), spawner.getY(), color));
-        }
-    }
-    private void updateBalls() {
-        Iterator<Ball> ballIterator = balls.iterator();
-        while (ballIterator.hasNext()) {
-            Ball ball = ballIterator.next();
-            if (!ball.isRemoved()) {
-                ball.move();
-                handleWallCollisions(ball);
-                handlePlayerLineCollisions(ball);
-                handleHoleCollisions(ball);
-            }
-            
-            if (ball.isRemoved()) {
-                ballIterator.remove();
-            }
-        }
-    }
-    private void handleHoleCollisions(Ball ball) {
-        for (Hole hole : holes) {
-            if (hole.captures(ball)) {
-                handleBallCapture(ball, hole);
-                return; // Exit the method immediately after capturing the ball
-            } else if (hole.attracts(ball)) {
-                hole.applyAttraction(ball);
-                ball.updateAttractionFactor(hole);
-            }
-        }
-    }
-private void handleWallCollisions(Ball ball) {
-    PVector totalNormal = new PVector(0, 0);  // To accumulate normals from multiple walls
-    boolean collisionOccurred = false;
-
-    // Check collisions with all walls
-    for (Wall wall : walls) {
-        if (wall.collidesWith(ball)) {
-            PVector normal = wall.getNormal(ball).normalize();  // Normalize the normal vector
-            totalNormal.add(normal);  // Accumulate normals to get the main reflection direction
-
-            if (wall.getColor() != 0) {
-                ball.setColor(wall.getColor());  // Change ball color if wall has a color
-            }
-
-            collisionOccurred = true;
-        }
-    }
-
-    // If a collision occurred, calculate the final reflection
-    if (collisionOccurred) {
-        totalNormal.normalize();  // Get the average direction of collision
-        ball.reflect(totalNormal);  // Reflect based on the combined normal
-
-        // Apply correction to avoid getting stuck
-        correctPosition(ball, totalNormal);
-    }
-
-    // Handle screen edge collisions
-    handleEdgeCollisions(ball);
-}
-
-// Helper method to correct the ball's position to avoid sticking
-private void correctPosition(Ball ball, PVector normal) {
-    PVector correction = normal.copy().mult(1.0f);  // Move slightly along the normal vector
-    ball.getPosition().add(correction);  // Nudge the ball to avoid getting stuck
-}
-
-// Helper method to handle edge collisions
-private void handleEdgeCollisions(Ball ball) {
-    float buffer = 0.5f;  // Small buffer to prevent edge sticking
-
-    if (ball.getX() - ball.getRadius() < 0) {
-        ball.setPosition(ball.getRadius() + buffer, ball.getY());
-        ball.reverseX();
-    } else if (ball.getX() + ball.getRadius() > App.WIDTH) {
-        ball.setPosition(App.WIDTH - ball.getRadius() - buffer, ball.getY());
-        ball.reverseX();
-    }
-
-    if (ball.getY() - ball.getRadius() < App.TOPBAR) {
-        ball.setPosition(ball.getX(), App.TOPBAR + ball.getRadius() + buffer);
-        ball.reverseY();
-    } else if (ball.getY() + ball.getRadius() > App.HEIGHT) {
-        ball.setPosition(ball.getX(), App.HEIGHT - ball.getRadius() - buffer);
-        ball.reverseY();
-    }
-}
-
-
-
-    private void handlePlayerLineCollisions(Ball ball) {
-        Iterator<PlayerLine> lineIterator = playerLines.iterator();
-        while (lineIterator.hasNext()) {
-            PlayerLine line = lineIterator.next();
-            if (line.collidesWith(ball)) {
-                ball.reflect(line.getNormal(ball));
-                lineIterator.remove();
-                return;
-            }
-        }
-    }
-
-   
-    private void handleBallCapture(Ball ball, Hole hole) {
-        int scoreChange = hole.calculateScoreChange(ball, app);
-        app.updateScore(scoreChange);
-        if (scoreChange < 0) {
-            nextBalls.add(getColorName(ball.getColor()));
-        }
-        ball.remove();
-        System.out.println("Ball removed. Remaining balls: " + balls.size());
-    }
-    
-
-    private void checkLevelCompletion() {
-        if (balls.isEmpty() && nextBalls.isEmpty()) {
-            levelCompleted = true;
-        }
-    }
-
-    public void display() {
-        for (Wall wall : walls) {
-            wall.display(app);
-        }
-        for (Hole hole : holes) {
-            hole.display(app);
-        }
-        for (Ball ball : balls) {
-            ball.display(app);
-        }
-        for (PlayerLine line : playerLines) {
-            line.display(app);
-        }
-        if (currentLine != null) {
-            currentLine.display(app);
-        }
-    }
-
-    public void displayNextBalls(float x, float y) {
-        for (int i = 0; i < Math.min(5, nextBalls.size()); i++) {
-            int color = getColorIndex(nextBalls.get(i));
-            app.image(app.getBallImage(color), x + i * 20, y - 10, 20, 20);
-        }
-    }
-
-    private int getColorIndex(String colorName) {
-        switch (colorName.toLowerCase()) {
-            case "grey": return 0;
-            case "orange": return 1;
-            case "blue": return 2;
-            case "green": return 3;
-            case "yellow": return 4;
-            default: return 0;
-        }
-    }
-
-    private String getColorName(int colorIndex) {
-        switch (colorIndex) {
-            case 0: return "grey";
-            case 1: return "orange";
-            case 2: return "blue";
-            case 3: return "green";
-            case 4: return "yellow";
-            default: return "grey";
-        }
-    }
-
-    public int getRemainingTime() {
-        return remainingTime / App.FPS;
-    }
-
-    public boolean isCompleted() {
-        return levelCompleted;
-    }
-
-    public boolean isTimedOut() {
-        return timedOut;
-    }
-    public float getSpawnTimeRemaining() {
-    return spawnCounter / (float) App.FPS;  // Convert frames to seconds with one decimal place
-}
-
-
-    public void startDrawingLine(int x, int y) {
-        currentLine = new PlayerLine(x, y);
-    }
-
-    public void continueDrawingLine(int x, int y) {
-        if (currentLine != null) {
-            currentLine.addPoint(x, y);
-        }
-    }
-
-    public void finishDrawingLine() {
-        if (currentLine != null && currentLine.getPoints().size() > 1) {
-            playerLines.add(currentLine);
-            currentLine = null;
-        }
-    }
-
-    public void removeLineAt(int x, int y) {
-        Iterator<PlayerLine> lineIterator = playerLines.iterator();
-        while (lineIterator.hasNext()) {
-            PlayerLine line = lineIterator.next();
-            if (line.containsPoint(x, y)) {
-                lineIterator.remove();
-                return;
-            }
-        }
-    }
-
-    public int completeLevel() {
-        int remainingTimeBonus = 0;
-        if (remainingTime > 0) {
-            remainingTimeBonus = (int) (remainingTime / (App.FPS * 0.067)); // Convert remaining frames to score
-        }
-        return remainingTimeBonus;
-    }
-
-    public void restart() {
-        balls.clear();
-        nextBalls.clear();
-        playerLines.clear();
-        currentLine = null;
-        loadLayout();
-        initializeEntities();
-        levelCompleted = false;
-        gameOver = false;
-        timedOut = false;
-    }
-}
+package inkball;
+
+import processing.core.PVector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Headless level simulation: everything update() needs comes from the parsed layout
+// and config, so a level can be stepped without a PApplet (see LevelRenderer for drawing)
+public class Level {
+    private LevelTemplate template;
+    private LevelSpec spec;
+    private int tickRate; // Simulation ticks per second
+    private Random random;
+    private ScoreListener scoreListener;
+    private BallStore balls;
+    private List<Hole> holes;
+    private List<Spawner> spawners;
+    private List<Wall> walls;
+    private WallGrid wallGrid;
+    private HoleGrid holeGrid;
+    private int[] nextBalls; // Colours waiting at the spawners, front first
+    private int nextBallCount;
+    private int remainingTime;
+    private int spawnInterval;
+    private int spawnCounter;
+    private boolean levelCompleted;
+    private boolean gameOver;
+    private boolean timedOut;
+    
+    private List<PlayerLine> playerLines;
+    private LineSegmentIndex lineIndex;
+    private PlayerLine currentLine;
+    private BallCollisions ballCollisions; // Null unless the level turns ball collisions on
+
+    // State right after the layout's balls were placed; restart() goes back to it
+    private final Snapshot initialState;
+
+    // Per-phase tick timings, shared by every level (see Metrics)
+    private static final LatencyHistogram UPDATE_TIME = Metrics.histogram("level.update");
+    private static final LatencyHistogram TIMER_TIME = Metrics.histogram("level.updateTimer");
+    private static final LatencyHistogram SPAWNING_TIME = Metrics.histogram("level.updateBallSpawning");
+    private static final LatencyHistogram BALL_COLLISIONS_TIME = Metrics.histogram("level.ballCollisions");
+    private static final LatencyHistogram BALLS_TIME = Metrics.histogram("level.updateBalls");
+    private static final LatencyHistogram COMPLETION_TIME = Metrics.histogram("level.checkCompletion");
+    private static final LatencyHistogram WALL_SWEEP_TIME = Metrics.histogram("level.wallSweeps");
+    private static final LatencyHistogram LINE_SWEEP_TIME = Metrics.histogram("level.lineSweeps");
+    private static final LatencyHistogram HOLE_TIME = Metrics.histogram("level.holes");
+
+    private static final int MAX_SWEEPS = 4; // Bounces resolved per ball per tick
+    private static final float SAME_CONTACT = 1e-4f; // Wall hits this close in time form one contact
+
+    // Scratch state reused by the collision passes so a tick does not allocate
+    private final PVector sweepNormal = new PVector();
+    private final SweepHit wallHit = new SweepHit();
+    private final SweepHit lineHit = new SweepHit();
+    private final int[] blockStamps; // Last sweep that tested each wall block
+    private int sweepStamp;
+    // Time spent in each collision pass this tick, summed over all balls (detailed metrics only)
+    private long wallSweepNanos;
+    private long lineSweepNanos;
+    private long holeNanos;
+
+    public Level(LevelTemplate template, Random random, ScoreListener scoreListener) {
+        this.template = template;
+        this.spec = template.getSpec();
+        this.random = random;
+        this.scoreListener = scoreListener;
+        this.tickRate = template.getTickRate();
+        // Speeds and forces are tuned per tick at App.FPS; scale them so other rates play the same
+        this.balls = new BallStore((float) App.FPS / tickRate);
+        this.holes = template.getHoles();
+        this.spawners = template.getSpawners();
+        this.walls = template.getWalls();
+        this.wallGrid = template.getWallGrid();
+        this.holeGrid = template.getHoleGrid();
+        this.blockStamps = new int[wallGrid.getBlocks().size()];
+        this.nextBalls = new int[Math.max(8, spec.getBallCount())];
+        this.playerLines = new ArrayList<>();
+        this.lineIndex = new LineSegmentIndex();
+        this.currentLine = null;
+        this.ballCollisions = spec.hasBallCollisions() ? new BallCollisions() : null;
+        initializeEntities();
+        this.initialState = snapshot();
+    }
+
+    private void initializeEntities() {
+        for (int i = 0; i < template.getBallCount(); i++) {
+            balls.add(template.getBallX(i), template.getBallY(i), template.getBallColor(i), random);
+        }
+        remainingTime = template.getTimeTicks();
+        spawnInterval = template.getSpawnIntervalTicks();
+        spawnCounter = spawnInterval;
+        for (int i = 0; i < spec.getBallCount(); i++) {
+            queueBall(spec.getBall(i));
+        }
+    }
+
+    public void update() {
+        if (levelCompleted || gameOver || timedOut) {
+            return;
+        }
+        
+        long start = Metrics.now();
+        updateTimer();
+        long time = TIMER_TIME.recordSince(start);
+        updateBallSpawning();
+        time = SPAWNING_TIME.recordSince(time);
+        if (ballCollisions != null) {
+            ballCollisions.resolve(balls);
+            time = BALL_COLLISIONS_TIME.recordSince(time);
+        }
+        updateBalls();
+        time = BALLS_TIME.recordSince(time);
+        checkLevelCompletion();
+        COMPLETION_TIME.recordSince(time);
+        UPDATE_TIME.recordSince(start);
+    }
+
+    private void updateTimer() {
+        if (remainingTime > 0) {
+            remainingTime--;
+            if (remainingTime == 0) {
+                timedOut = true;
+                Log.info("=== TIME'S UP ===");
+            }
+        }
+    }
+
+    private void updateBallSpawning() {
+        spawnCounter--;
+        if (spawnCounter <= 0 && nextBallCount > 0) {
+            spawnBall();
+            spawnCounter = spawnInterval;
+        }
+    }
+
+    private void spawnBall() {
+        if (!spawners.isEmpty() && nextBallCount > 0) {
+            Spawner spawner = spawners.get(random.nextInt(spawners.size()));
+            int color = nextBalls[0];
+            nextBallCount--;
+            System.arraycopy(nextBalls, 1, nextBalls, 0, nextBallCount);
+            balls.add(spawner.getX(), spawner.getY(), color, random);
+        }
+    }
+
+    private void queueBall(int color) {
+        if (nextBallCount == nextBalls.length) {
+            nextBalls = Arrays.copyOf(nextBalls, nextBallCount * 2);
+        }
+        nextBalls[nextBallCount++] = color;
+    }
+    private void updateBalls() {
+        // Captured balls are dropped by compacting the survivors towards the front
+        int kept = 0;
+        for (int ball = 0; ball < balls.size(); ball++) {
+            moveBall(ball);
+            handleEdgeCollisions(ball);
+            long start = Metrics.DETAIL ? System.nanoTime() : 0;
+            boolean captured = handleHoleCollisions(ball);
+            if (Metrics.DETAIL) {
+                holeNanos += System.nanoTime() - start;
+            }
+            if (!captured) {
+                if (kept != ball) {
+                    balls.copy(ball, kept);
+                }
+                kept++;
+            }
+        }
+        balls.truncate(kept);
+        if (Metrics.DETAIL) {
+            WALL_SWEEP_TIME.record(wallSweepNanos);
+            LINE_SWEEP_TIME.record(lineSweepNanos);
+            HOLE_TIME.record(holeNanos);
+            wallSweepNanos = 0;
+            lineSweepNanos = 0;
+            holeNanos = 0;
+        }
+    }
+
+    // Returns true if the ball was captured by a hole. Only the holes the grid
+    // lists for the ball's cell can reach it.
+    private boolean handleHoleCollisions(int ball) {
+        int cell = holeGrid.cellOf(balls.getX(ball), balls.getY(ball));
+        if (cell < 0) {
+            return false;
+        }
+        for (int i = holeGrid.start(cell); i < holeGrid.end(cell); i++) {
+            Hole hole = holes.get(holeGrid.getHole(i));
+            if (hole.captures(balls, ball)) {
+                handleBallCapture(ball, hole);
+                return true; // Exit the method immediately after capturing the ball
+            } else if (hole.attracts(balls, ball)) {
+                hole.applyAttraction(balls, ball);
+            }
+        }
+        return false;
+    }
+    // Moves the ball through its step for this tick with continuous collision: it
+    // stops at the first wall or line in its path, bounces off the contact normal
+    // and carries on with the rest of the step, so fast balls cannot tunnel
+    private void moveBall(int ball) {
+        balls.beginMove(ball);
+        float remaining = 1;
+        for (int sweep = 0; sweep < MAX_SWEEPS && remaining > 0; sweep++) {
+            float dx = balls.getVx(ball) * balls.getTimeStep() * remaining;
+            float dy = balls.getVy(ball) * balls.getTimeStep() * remaining;
+            long start = Metrics.DETAIL ? System.nanoTime() : 0;
+            sweepWalls(ball, dx, dy);
+            long wallsDone = Metrics.DETAIL ? System.nanoTime() : 0;
+            lineIndex.sweep(balls, ball, dx, dy, sweepNormal, lineHit);
+            if (Metrics.DETAIL) {
+                wallSweepNanos += wallsDone - start;
+                lineSweepNanos += System.nanoTime() - wallsDone;
+            }
+            SweepHit hit = lineHit.time < wallHit.time ? lineHit : wallHit;
+            if (!hit.isHit()) {
+                balls.translate(ball, dx, dy);
+                return;
+            }
+
+            balls.translate(ball, dx * hit.time, dy * hit.time);
+            if (balls.getVx(ball) * hit.normalX + balls.getVy(ball) * hit.normalY < 0) {
+                balls.reflect(ball, hit.normalX, hit.normalY);
+            }
+            if (hit.wall != null && hit.wall.getColor() != 0) {
+                balls.setColor(ball, hit.wall.getColor());  // Change ball color if wall has a color
+            }
+            if (hit.line != null) {
+                removeLine(hit.line);
+            }
+            remaining *= 1 - hit.time;
+        }
+    }
+
+    // Earliest wall contact along (dx, dy), from the blocks in the grid cells the
+    // swept ball covers; each block is tested once however many cells it spans.
+    // Blocks touched at the same moment (e.g. an inside corner) add their normals.
+    private void sweepWalls(int ball, float dx, float dy) {
+        wallHit.reset();
+        sweepStamp++;
+        float x = balls.getX(ball);
+        float y = balls.getY(ball);
+        float radius = balls.getRadius(ball);
+        int minColumn = wallGrid.columnOf(Math.min(x, x + dx) - radius);
+        int maxColumn = wallGrid.columnOf(Math.max(x, x + dx) + radius);
+        int minRow = wallGrid.rowOf(Math.min(y, y + dy) - radius);
+        int maxRow = wallGrid.rowOf(Math.max(y, y + dy) + radius);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                WallBlock wall = wallGrid.get(column, row);
+                if (wall == null || blockStamps[wall.getId()] == sweepStamp) {
+                    continue;
+                }
+                blockStamps[wall.getId()] = sweepStamp;
+                float time = wall.sweep(balls, ball, dx, dy, sweepNormal);
+                if (time < wallHit.time - SAME_CONTACT) {
+                    wallHit.time = time;
+                    wallHit.normalX = sweepNormal.x;
+                    wallHit.normalY = sweepNormal.y;
+                    wallHit.wall = wall;
+                } else if (time <= wallHit.time + SAME_CONTACT && wallHit.isHit()) {
+                    wallHit.time = Math.min(wallHit.time, time);
+                    wallHit.normalX += sweepNormal.x;
+                    wallHit.normalY += sweepNormal.y;
+                    if (wall.getColor() != 0) {
+                        wallHit.wall = wall;
+                    }
+                }
+            }
+        }
+    }
+
+// Helper method to handle edge collisions
+private void handleEdgeCollisions(int ball) {
+    float buffer = 0.5f;  // Small buffer to prevent edge sticking
+    float radius = balls.getRadius(ball);
+
+    if (balls.getX(ball) - radius < 0) {
+        balls.setPosition(ball, radius + buffer, balls.getY(ball));
+        balls.reverseX(ball);
+    } else if (balls.getX(ball) + radius > App.WIDTH) {
+        balls.setPosition(ball, App.WIDTH - radius - buffer, balls.getY(ball));
+        balls.reverseX(ball);
+    }
+
+    if (balls.getY(ball) - radius < App.TOPBAR) {
+        balls.setPosition(ball, balls.getX(ball), App.TOPBAR + radius + buffer);
+        balls.reverseY(ball);
+    } else if (balls.getY(ball) + radius > App.HEIGHT) {
+        balls.setPosition(ball, balls.getX(ball), App.HEIGHT - radius - buffer);
+        balls.reverseY(ball);
+    }
+}
+
+
+
+    private void removeLine(PlayerLine line) {
+        lineIndex.removeLine(line);
+        playerLines.remove(line);
+    }
+
+   
+    private void handleBallCapture(int ball, Hole hole) {
+        int scoreChange = hole.calculateScoreChange(balls.getColor(ball), spec);
+        scoreListener.scoreChanged(scoreChange);
+        if (scoreChange < 0) {
+            queueBall(balls.getColor(ball));
+        }
+        if (Log.DEBUG) {
+            Log.debug("Ball removed. Remaining balls:", balls.size());
+        }
+    }
+    
+
+    private void checkLevelCompletion() {
+        if (balls.isEmpty() && nextBallCount == 0) {
+            levelCompleted = true;
+        }
+    }
+
+    public int getRemainingTime() {
+        return remainingTime / tickRate;
+    }
+
+    public boolean isCompleted() {
+        return levelCompleted;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public LevelSpec getSpec() {
+        return spec;
+    }
+
+    public LevelTemplate getTemplate() {
+        return template;
+    }
+
+    public List<Wall> getWalls() {
+        return walls;
+    }
+
+    public List<Hole> getHoles() {
+        return holes;
+    }
+
+    public List<Spawner> getSpawners() {
+        return spawners;
+    }
+
+    public BallStore getBalls() {
+        return balls;
+    }
+
+    public List<PlayerLine> getPlayerLines() {
+        return playerLines;
+    }
+
+    public PlayerLine getCurrentLine() {
+        return currentLine;
+    }
+
+    public int getNextBallCount() {
+        return nextBallCount;
+    }
+
+    public int getNextBall(int i) {
+        return nextBalls[i];
+    }
+    public float getSpawnTimeRemaining() {
+    return spawnCounter / (float) tickRate;  // Convert ticks to seconds with one decimal place
+}
+
+
+    public void startDrawingLine(int x, int y) {
+        currentLine = new PlayerLine(x, y); // An abandoned stroke was never indexed, so it is simply dropped
+    }
+
+    public void continueDrawingLine(int x, int y) {
+        if (currentLine != null) {
+            currentLine.addPoint(x, y);
+        }
+    }
+
+    // Strokes take no part in collisions until finished, so a stroke is only
+    // indexed once, after it has been simplified
+    public void finishDrawingLine() {
+        if (currentLine != null && currentLine.getPointCount() > 1) {
+            currentLine.simplify(spec.getLineTolerance());
+            for (int i = 0; i < currentLine.getPointCount() - 1; i++) {
+                lineIndex.addSegment(currentLine, i);
+            }
+            lineIndex.finishLine(currentLine);
+            playerLines.add(currentLine);
+            currentLine = null;
+        }
+    }
+
+    public void removeLineAt(int x, int y) {
+        PlayerLine line = lineIndex.findLineAt(x, y);
+        if (line != null) {
+            removeLine(line);
+        }
+    }
+
+    public int completeLevel() {
+        int remainingTimeBonus = 0;
+        if (remainingTime > 0) {
+            remainingTimeBonus = (int) (remainingTime / (tickRate * 0.067)); // Convert remaining ticks to score
+        }
+        return remainingTimeBonus;
+    }
+
+    // Puts the level back to how it started; the layout is shared, so only the moving state is copied
+    public void restart() {
+        restore(initialState);
+    }
+
+    // Mutable state of a level at one moment. Finished lines are kept by reference
+    // (they no longer change once drawn); a stroke still being drawn is not kept.
+    public static final class Snapshot {
+        private final BallStore balls = new BallStore();
+        private int[] nextBalls = new int[0];
+        private int nextBallCount;
+        private final List<PlayerLine> playerLines = new ArrayList<>();
+        private int remainingTime;
+        private int spawnCounter;
+        private boolean levelCompleted;
+        private boolean gameOver;
+        private boolean timedOut;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot(snapshot);
+        return snapshot;
+    }
+
+    // Overwrites an existing snapshot, reusing its storage
+    public void snapshot(Snapshot into) {
+        into.balls.copyFrom(balls);
+        if (into.nextBalls.length < nextBallCount) {
+            into.nextBalls = new int[nextBalls.length];
+        }
+        System.arraycopy(nextBalls, 0, into.nextBalls, 0, nextBallCount);
+        into.nextBallCount = nextBallCount;
+        into.playerLines.clear();
+        into.playerLines.addAll(playerLines);
+        into.remainingTime = remainingTime;
+        into.spawnCounter = spawnCounter;
+        into.levelCompleted = levelCompleted;
+        into.gameOver = gameOver;
+        into.timedOut = timedOut;
+    }
+
+    public void restore(Snapshot snapshot) {
+        balls.copyFrom(snapshot.balls);
+        if (nextBalls.length < snapshot.nextBallCount) {
+            nextBalls = new int[snapshot.nextBalls.length];
+        }
+        System.arraycopy(snapshot.nextBalls, 0, nextBalls, 0, snapshot.nextBallCount);
+        nextBallCount = snapshot.nextBallCount;
+        remainingTime = snapshot.remainingTime;
+        spawnCounter = snapshot.spawnCounter;
+        levelCompleted = snapshot.levelCompleted;
+        gameOver = snapshot.gameOver;
+        timedOut = snapshot.timedOut;
+
+        playerLines.clear();
+        lineIndex.clear();
+        currentLine = null;
+        for (PlayerLine line : snapshot.playerLines) {
+            for (int i = 0; i < line.getPointCount() - 1; i++) {
+                lineIndex.addSegment(line, i);
+            }
+            lineIndex.finishLine(line);
+            playerLines.add(line);
+        }
+    }
+}
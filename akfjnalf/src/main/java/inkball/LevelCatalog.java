@@ -0,0 +1,75 @@
+package inkball;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Level templates for a game, loaded on demand. get() loads a level the first
+// time it is needed; prefetch() starts loading one on the executor so it is
+// ready by the time play reaches it. Each level is loaded at most once.
+public class LevelCatalog {
+
+    // Reads and parses one level's layout
+    public interface Loader {
+        LevelTemplate load(LevelSpec level, int tickRate) throws IOException;
+    }
+
+    private final GameSpec spec;
+    private final Loader loader;
+    private final Executor executor;
+    private final AtomicReferenceArray<CompletableFuture<LevelTemplate>> templates;
+
+    public LevelCatalog(GameSpec spec, Loader loader, Executor executor) {
+        this.spec = spec;
+        this.loader = loader;
+        this.executor = executor;
+        this.templates = new AtomicReferenceArray<>(spec.getLevels().size());
+    }
+
+    // A catalog over templates that are already loaded
+    public static LevelCatalog of(GameSpec spec, List<LevelTemplate> loaded) {
+        LevelCatalog catalog = new LevelCatalog(spec, (level, tickRate) -> null, Runnable::run);
+        for (int i = 0; i < loaded.size(); i++) {
+            catalog.templates.set(i, CompletableFuture.completedFuture(loaded.get(i)));
+        }
+        return catalog;
+    }
+
+    public int size() {
+        return templates.length();
+    }
+
+    public synchronized void prefetch(int index) {
+        if (index >= 0 && index < templates.length() && templates.get(index) == null) {
+            LevelSpec level = spec.getLevels().get(index);
+            templates.set(index, CompletableFuture.supplyAsync(() -> load(level), executor));
+        }
+    }
+
+    // Returns the template, waiting for it if it is still loading
+    public LevelTemplate get(int index) {
+        prefetch(index);
+        try {
+            return templates.get(index).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private LevelTemplate load(LevelSpec level) {
+        long start = System.nanoTime();
+        try {
+            LevelTemplate template = loader.load(level, spec.getSimulationRate());
+            if (Log.DEBUG) {
+                Log.debug("Loaded level layout, micros:", (System.nanoTime() - start) / 1000);
+            }
+            return template;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package inkball;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Compiled binary level layouts (.lvl), so large generated campaigns load by
+// mapping a file instead of reading and scanning text. All values big-endian:
+//
+//   int   magic "INKL"
+//   byte  version
+//   short columns, rows
+//   byte  cells[rows * columns]   row-major; 0 empty, 1 + colour for a wall
+//   short spawner count, then per spawner: short column, row
+//   short hole count,    then per hole:    short column, row; byte colour
+//   short ball count,    then per ball:    short column, row; byte colour
+//
+// Entities are stored in the order the text layout lists them, so a level built
+// from either form is identical. Text layouts are compiled here too, which keeps
+// a single decoding path in LevelTemplate.
+//
+// Usage: LevelFormat <output dir> <layout.txt>...
+public final class LevelFormat {
+    static final int MAGIC = 0x494E4B4C; // "INKL"
+    static final int VERSION = 1;
+    static final byte EMPTY = 0;
+    public static final String EXTENSION = ".lvl";
+
+    private LevelFormat() {
+    }
+
+    public static ByteBuffer compile(String[] layout) {
+        int columns = 0;
+        for (String line : layout) {
+            columns = Math.max(columns, line.length());
+        }
+        int rows = layout.length;
+
+        byte[] cells = new byte[columns * rows];
+        ByteBuffer spawners = ByteBuffer.allocate(4 * columns * rows);
+        ByteBuffer holes = ByteBuffer.allocate(5 * columns * rows);
+        ByteBuffer balls = ByteBuffer.allocate(5 * columns * rows);
+        int spawnerCount = 0;
+        int holeCount = 0;
+        int ballCount = 0;
+
+        for (int row = 0; row < rows; row++) {
+            String line = layout[row];
+            for (int column = 0; column < line.length(); column++) {
+                char c = line.charAt(column);
+                switch (c) {
+                    case 'X':
+                        cells[row * columns + column] = 1;
+                        break;
+                    case '1':
+                    case '2':
+                    case '3':
+                    case '4':
+                        cells[row * columns + column] = (byte) (1 + Character.getNumericValue(c));
+                        break;
+                    case 'S':
+                        spawners.putShort((short) column).putShort((short) row);
+                        spawnerCount++;
+                        break;
+                    case 'H':
+                        if (column + 1 < line.length()) {
+                            holes.putShort((short) column).putShort((short) row).put((byte) Character.getNumericValue(line.charAt(column + 1)));
+                            holeCount++;
+                            column++;  // Skip the next character as it's the hole color
+                        }
+                        break;
+                    case 'B':
+                        if (column + 1 < line.length()) {
+                            balls.putShort((short) column).putShort((short) row).put((byte) Character.getNumericValue(line.charAt(column + 1)));
+                            ballCount++;
+                            column++;  // Skip the next character as it's the ball color
+                        }
+                        break;
+                }
+            }
+        }
+
+        spawners.flip();
+        holes.flip();
+        balls.flip();
+        ByteBuffer out = ByteBuffer.allocate(9 + cells.length + 6 + spawners.remaining() + holes.remaining() + balls.remaining());
+        out.putInt(MAGIC).put((byte) VERSION).putShort((short) columns).putShort((short) rows);
+        out.put(cells);
+        out.putShort((short) spawnerCount).put(spawners);
+        out.putShort((short) holeCount).put(holes);
+        out.putShort((short) ballCount).put(balls);
+        out.flip();
+        return out;
+    }
+
+    // Maps a compiled level read-only; the mapping stays valid after the channel closes
+    public static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    public static boolean isCompiled(String layoutName) {
+        return layoutName.endsWith(EXTENSION);
+    }
+
+    // Reads and checks the header, leaving the buffer positioned at the cell grid
+    static void readHeader(ByteBuffer data) {
+        if (data.remaining() < 9 || data.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled level");
+        }
+        int version = data.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported compiled level version " + version);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LevelFormat <output dir> <layout.txt>...");
+            System.exit(1);
+        }
+        Path outputDir = Paths.get(args[0]);
+        Files.createDirectories(outputDir);
+        for (int i = 1; i < args.length; i++) {
+            Path input = Paths.get(args[i]);
+            String name = input.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            Path output = outputDir.resolve((dot > 0 ? name.substring(0, dot) : name) + EXTENSION);
+
+            ByteBuffer data = compile(LevelLoader.loadLayout(input));
+            try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            System.out.println(input + " -> " + output + " (" + Files.size(output) + " bytes)");
+        }
+    }
+}
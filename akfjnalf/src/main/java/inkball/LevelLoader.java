@@ -0,0 +1,57 @@
+package inkball;
+
+import processing.data.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Reads config.json and the level layouts straight from disk so levels can be
+// built without a PApplet (CI, batch runs, servers)
+public final class LevelLoader {
+
+    private LevelLoader() {
+    }
+
+    public static JSONObject loadConfig(Path configPath) throws IOException {
+        return JSONObject.parse(new String(Files.readAllBytes(configPath), StandardCharsets.UTF_8));
+    }
+
+    public static GameSpec loadSpec(Path configPath) throws IOException {
+        return new GameSpec(loadConfig(configPath));
+    }
+
+    public static String[] loadLayout(Path layoutPath) throws IOException {
+        return Files.readAllLines(layoutPath, StandardCharsets.UTF_8).toArray(new String[0]);
+    }
+
+    // A level's layout may be a text file or a compiled .lvl, which is mapped rather than read
+    public static LevelTemplate loadTemplate(Path layoutPath, LevelSpec spec, int tickRate) throws IOException {
+        if (LevelFormat.isCompiled(layoutPath.toString())) {
+            return new LevelTemplate(spec, LevelFormat.map(layoutPath), tickRate);
+        }
+        return new LevelTemplate(spec, loadLayout(layoutPath), tickRate);
+    }
+
+    // Templates for every level in the config, with layouts resolved next to the config file
+    public static List<LevelTemplate> loadTemplates(Path configPath, GameSpec spec) throws IOException {
+        Path baseDir = configPath.toAbsolutePath().getParent();
+        List<LevelTemplate> templates = new ArrayList<>();
+        for (LevelSpec level : spec.getLevels()) {
+            templates.add(loadTemplate(baseDir.resolve(level.getLayout()), level, spec.getSimulationRate()));
+        }
+        return templates;
+    }
+
+    public static List<Level> loadLevels(Path configPath, Random random, ScoreListener scoreListener) throws IOException {
+        List<Level> levels = new ArrayList<>();
+        for (LevelTemplate template : loadTemplates(configPath, loadSpec(configPath))) {
+            levels.add(new Level(template, random, scoreListener));
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,130 @@
+package inkball;
+
+import processing.core.PGraphics;
+
+// Draws a RenderFrame published by the Simulation through the App's Processing
+// context. Tiles, walls, holes and spawners never move, so they are composited
+// once into an off-screen layer per level template and blitted each frame.
+public class LevelRenderer {
+    public static final int NEXT_BALL_SIZE = 20; // Queued balls in the top bar are drawn smaller
+
+    private App app;
+    private PGraphics background;
+    private LevelTemplate backgroundTemplate;
+
+    public LevelRenderer(App app) {
+        this.app = app;
+    }
+
+    // alpha blends ball positions between the previous and current simulation tick
+    public void display(RenderFrame frame, float alpha) {
+        app.image(getBackground(frame.getTemplate()), 0, App.TOPBAR);
+
+        BallStore balls = frame.getBalls();
+        for (int ball = 0; ball < balls.size(); ball++) {
+            displayBall(balls, ball, alpha);
+        }
+        for (PlayerLine line : frame.getPlayerLines()) {
+            displayLine(line);
+        }
+        displayStroke(frame);
+    }
+
+    public void displayNextBalls(RenderFrame frame, float x, float y) {
+        for (int i = 0; i < Math.min(5, frame.getNextBallCount()); i++) {
+            int color = frame.getNextBall(i);
+            app.getAtlas().draw(app.g, app.getNextBallSprite(color), x + i * NEXT_BALL_SIZE, y - NEXT_BALL_SIZE / 2);
+        }
+    }
+
+    // The static board for the template, baked on first use and again only when the level changes
+    PGraphics getBackground(LevelTemplate template) {
+        if (background == null || template != backgroundTemplate) {
+            bakeBackground(template);
+        }
+        return background;
+    }
+
+    // Composites the static part of the board below the top bar into the background layer
+    private void bakeBackground(LevelTemplate template) {
+        if (background == null) {
+            background = app.createGraphics(App.WIDTH, App.HEIGHT - App.TOPBAR);
+        }
+        background.beginDraw();
+        background.clear();
+        background.translate(0, -App.TOPBAR);
+        displayBoard(background);
+        for (Wall wall : template.getWalls()) {
+            displayWall(background, wall);
+        }
+        for (Hole hole : template.getHoles()) {
+            displayHole(background, hole);
+        }
+        for (Spawner spawner : template.getSpawners()) {
+            displaySpawner(background, spawner);
+        }
+        background.endDraw();
+
+        backgroundTemplate = template;
+    }
+
+    private void displayBoard(PGraphics g) {
+        SpriteAtlas atlas = app.getAtlas();
+        int tileSprite = app.getTileSprite();
+        for (int i = 0; i < App.BOARD_WIDTH; i++) {
+            for (int j = 0; j < App.BOARD_HEIGHT; j++) {
+                float x = i * App.CELLSIZE;
+                float y = j * App.CELLSIZE + App.TOPBAR;
+                if (tileSprite >= 0) {
+                    atlas.draw(g, tileSprite, x, y);
+                } else {
+                    g.fill(200);
+                    g.rect(x, y, App.CELLSIZE, App.CELLSIZE);
+                }
+            }
+        }
+    }
+
+    private void displayWall(PGraphics g, Wall wall) {
+        app.getAtlas().draw(g, app.getWallSprite(wall.getColor()), wall.getX(), wall.getY());
+    }
+
+    private void displayHole(PGraphics g, Hole hole) {
+        int holeSprite = app.getHoleSprite(hole.getColor());
+        if (holeSprite >= 0) {
+            app.getAtlas().draw(g, holeSprite, hole.getX() - App.CELLSIZE, hole.getY() - App.CELLSIZE);
+        } else {
+            // Fallback rendering if image is not available
+            g.noStroke();
+            g.fill(200); // Light grey color
+            g.ellipse(hole.getX(), hole.getY(), App.CELLSIZE * 2, App.CELLSIZE * 2);
+        }
+    }
+
+    private void displaySpawner(PGraphics g, Spawner spawner) {
+        app.getAtlas().draw(g, app.getSpawnerSprite(), spawner.getX(), spawner.getY());
+    }
+
+    private void displayBall(BallStore balls, int ball, float alpha) {
+        float x = balls.getInterpolatedX(ball, alpha);
+        float y = balls.getInterpolatedY(ball, alpha);
+        app.getAtlas().draw(app.g, app.getBallSprite(balls.getColor(ball)), x - BallStore.BALL_RADIUS, y - BallStore.BALL_RADIUS);
+    }
+
+    private void displayLine(PlayerLine line) {
+        app.stroke(0);
+        app.strokeWeight(10);
+        for (int i = 0; i < line.getPointCount() - 1; i++) {
+            app.line(line.getX(i), line.getY(i), line.getX(i + 1), line.getY(i + 1));
+        }
+    }
+
+    // The line still being drawn
+    private void displayStroke(RenderFrame frame) {
+        app.stroke(0);
+        app.strokeWeight(10);
+        for (int i = 0; i < frame.getStrokePointCount() - 1; i++) {
+            app.line(frame.getStrokeX(i), frame.getStrokeY(i), frame.getStrokeX(i + 1), frame.getStrokeY(i + 1));
+        }
+    }
+}
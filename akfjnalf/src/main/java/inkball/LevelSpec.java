@@ -0,0 +1,98 @@
+package inkball;
+
+import processing.data.JSONArray;
+import processing.data.JSONObject;
+
+// One level's settings from config.json in typed form. Scoring is compiled into
+// a table indexed by hole colour then ball colour, with the score modifiers
+// already applied, so resolving a capture is a single array read.
+public final class LevelSpec {
+    public static final int COLORS = 5;
+    private static final String[] COLOR_NAMES = {"grey", "orange", "blue", "green", "yellow"};
+
+    private final String layout;
+    private final int time; // Seconds, negative when the level has no time limit
+    private final int spawnInterval; // Seconds
+    private final int[] balls;
+    private final boolean ballCollisions; // Whether balls bounce off each other
+    private final float lineTolerance; // Pixels a finished line may move when it is simplified
+    private final int[][] scoreChanges;
+
+    LevelSpec(JSONObject levelConfig, JSONObject config) {
+        this.layout = levelConfig.getString("layout");
+        this.time = levelConfig.getInt("time", -1);
+        this.spawnInterval = levelConfig.getInt("spawn_interval");
+
+        JSONArray ballsConfig = levelConfig.getJSONArray("balls");
+        this.balls = new int[ballsConfig.size()];
+        for (int i = 0; i < balls.length; i++) {
+            balls[i] = colorIndex(ballsConfig.getString(i));
+        }
+
+        this.ballCollisions = levelConfig.getBoolean("ball_collisions", config.getBoolean("ball_collisions", false));
+        this.lineTolerance = levelConfig.getFloat("line_tolerance", config.getFloat("line_tolerance", 1.0f));
+
+        // Only the game-wide modifiers apply, as they always have; the per-level ones in
+        // config.json are not read
+        float increaseModifier = config.getFloat("score_increase_from_hole_capture_modifier", 1.0f);
+        float decreaseModifier = config.getFloat("score_decrease_from_wrong_hole_modifier", 1.0f);
+        JSONObject increases = config.getJSONObject("score_increase_from_hole_capture");
+        JSONObject decreases = config.getJSONObject("score_decrease_from_wrong_hole");
+
+        this.scoreChanges = new int[COLORS][COLORS];
+        for (int hole = 0; hole < COLORS; hole++) {
+            for (int ball = 0; ball < COLORS; ball++) {
+                boolean success = ball == hole || ball == 0 || hole == 0; // Grey matches anything
+                if (success) {
+                    scoreChanges[hole][ball] = (int) (increases.getInt(COLOR_NAMES[ball]) * increaseModifier);
+                } else {
+                    scoreChanges[hole][ball] = (int) (-decreases.getInt(COLOR_NAMES[ball]) * decreaseModifier);
+                }
+            }
+        }
+    }
+
+    // Score for a ball of ballColor falling into a hole of holeColor; negative for a wrong hole
+    public int getScoreChange(int holeColor, int ballColor) {
+        return scoreChanges[holeColor][ballColor];
+    }
+
+    public String getLayout() {
+        return layout;
+    }
+
+    public int getTime() {
+        return time;
+    }
+
+    public int getSpawnInterval() {
+        return spawnInterval;
+    }
+
+    public boolean hasBallCollisions() {
+        return ballCollisions;
+    }
+
+    public float getLineTolerance() {
+        return lineTolerance;
+    }
+
+    // Colours queued at the spawners, in spawn order
+    public int getBallCount() {
+        return balls.length;
+    }
+
+    public int getBall(int i) {
+        return balls[i];
+    }
+
+    // Unknown names count as grey
+    public static int colorIndex(String colorName) {
+        for (int i = 0; i < COLORS; i++) {
+            if (COLOR_NAMES[i].equalsIgnoreCase(colorName)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
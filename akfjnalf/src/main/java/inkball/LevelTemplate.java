@@ -0,0 +1,138 @@
+package inkball;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The parsed, unchanging part of a level: walls, holes, spawners and the wall
+// grid from the layout, where the layout's balls start, and the level's spec
+// with its timers converted to ticks. Built once and shared by every Level (and every restart
+// or batch run) played on it, so none of this is parsed or allocated again.
+public final class LevelTemplate {
+    private final LevelSpec spec;
+    private final int tickRate;
+    private final List<Wall> walls;
+    private final List<Hole> holes;
+    private final List<Spawner> spawners;
+    private final WallGrid wallGrid;
+    private final HoleGrid holeGrid;
+    private final float[] ballX;
+    private final float[] ballY;
+    private final int[] ballColor;
+    private final int timeTicks; // Negative when the level has no time limit
+    private final int spawnIntervalTicks;
+
+    public LevelTemplate(LevelSpec spec, String[] layout, int tickRate) {
+        this(spec, LevelFormat.compile(layout), tickRate);
+    }
+
+    // Builds the layout from a compiled level (see LevelFormat), e.g. a mapped .lvl file
+    public LevelTemplate(LevelSpec spec, ByteBuffer layout, int tickRate) {
+        this.spec = spec;
+        this.tickRate = tickRate;
+        ByteBuffer data = layout.duplicate();
+        LevelFormat.readHeader(data);
+        int columns = data.getShort();
+        int rows = data.getShort();
+
+        List<Wall> walls = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = data.get();
+                if (cell != LevelFormat.EMPTY) {
+                    walls.add(new Wall(column * App.CELLSIZE, row * App.CELLSIZE + App.TOPBAR, checkColor(cell - 1)));
+                }
+            }
+        }
+
+        int spawnerCount = data.getShort();
+        List<Spawner> spawners = new ArrayList<>(spawnerCount);
+        for (int i = 0; i < spawnerCount; i++) {
+            spawners.add(new Spawner(data.getShort() * App.CELLSIZE, data.getShort() * App.CELLSIZE + App.TOPBAR));
+        }
+
+        int holeCount = data.getShort();
+        List<Hole> holes = new ArrayList<>(holeCount);
+        for (int i = 0; i < holeCount; i++) {
+            holes.add(new Hole(data.getShort() * App.CELLSIZE, data.getShort() * App.CELLSIZE + App.TOPBAR, checkColor(data.get())));
+        }
+
+        int ballCount = data.getShort();
+        ballX = new float[ballCount];
+        ballY = new float[ballCount];
+        ballColor = new int[ballCount];
+        for (int i = 0; i < ballCount; i++) {
+            ballX[i] = data.getShort() * App.CELLSIZE + App.CELLSIZE / 2;
+            ballY[i] = data.getShort() * App.CELLSIZE + App.TOPBAR + App.CELLSIZE / 2;
+            ballColor[i] = checkColor(data.get());
+        }
+
+        wallGrid = new WallGrid(columns, rows, walls);
+        this.walls = Collections.unmodifiableList(walls);
+        this.holes = Collections.unmodifiableList(holes);
+        this.spawners = Collections.unmodifiableList(spawners);
+        this.holeGrid = new HoleGrid(columns, rows, this.holes);
+
+        this.timeTicks = spec.getTime() * tickRate;
+        this.spawnIntervalTicks = spec.getSpawnInterval() * tickRate;
+    }
+
+    // Colours index the score tables; anything the layout got wrong plays as grey
+    private static int checkColor(int color) {
+        return color >= 0 && color < LevelSpec.COLORS ? color : 0;
+    }
+
+    public LevelSpec getSpec() {
+        return spec;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public List<Wall> getWalls() {
+        return walls;
+    }
+
+    public List<Hole> getHoles() {
+        return holes;
+    }
+
+    public List<Spawner> getSpawners() {
+        return spawners;
+    }
+
+    public WallGrid getWallGrid() {
+        return wallGrid;
+    }
+
+    public HoleGrid getHoleGrid() {
+        return holeGrid;
+    }
+
+    // Balls placed directly in the layout
+    public int getBallCount() {
+        return ballX.length;
+    }
+
+    public float getBallX(int i) {
+        return ballX[i];
+    }
+
+    public float getBallY(int i) {
+        return ballY[i];
+    }
+
+    public int getBallColor(int i) {
+        return ballColor[i];
+    }
+
+    public int getTimeTicks() {
+        return timeTicks;
+    }
+
+    public int getSpawnIntervalTicks() {
+        return spawnIntervalTicks;
+    }
+}
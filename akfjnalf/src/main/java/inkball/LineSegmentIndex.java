@@ -0,0 +1,165 @@
+package inkball;
+
+import processing.core.PVector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Buckets player line segments by board cell so ball collisions and the eraser
+// only test segments near the query point. A line's segments are inserted when
+// it is finished; a line only takes part in queries once finishLine has run.
+public class LineSegmentIndex {
+    private static final int COLUMNS = App.BOARD_WIDTH;
+    private static final int ROWS = App.BOARD_HEIGHT;
+
+    private final List<List<Segment>> buckets;
+    private int nextOrder;
+    private int sweepStamp;
+
+    public LineSegmentIndex() {
+        buckets = new ArrayList<>(COLUMNS * ROWS);
+        for (int i = 0; i < COLUMNS * ROWS; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    // A segment runs from points[index] to points[index + 1] of its line
+    private static final class Segment {
+        final PlayerLine line;
+        final int index;
+        int stamp; // Last sweep that tested it; a segment spanning several cells sits in each of their buckets
+
+        Segment(PlayerLine line, int index) {
+            this.line = line;
+            this.index = index;
+        }
+    }
+
+    public void addSegment(PlayerLine line, int index) {
+        float x1 = line.getX(index);
+        float y1 = line.getY(index);
+        float x2 = line.getX(index + 1);
+        float y2 = line.getY(index + 1);
+        int minColumn = columnOf(Math.min(x1, x2));
+        int maxColumn = columnOf(Math.max(x1, x2));
+        int minRow = rowOf(Math.min(y1, y2));
+        int maxRow = rowOf(Math.max(y1, y2));
+        Segment segment = new Segment(line, index);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                buckets.get(row * COLUMNS + column).add(segment);
+            }
+        }
+    }
+
+    // Makes a finished line visible to queries; earlier lines win ties like the old list scan
+    public void finishLine(PlayerLine line) {
+        line.setOrder(nextOrder++);
+    }
+
+    public void removeLine(PlayerLine line) {
+        for (int i = 0; i < line.getPointCount() - 1; i++) {
+            float x1 = line.getX(i);
+            float y1 = line.getY(i);
+            float x2 = line.getX(i + 1);
+            float y2 = line.getY(i + 1);
+            int minColumn = columnOf(Math.min(x1, x2));
+            int maxColumn = columnOf(Math.max(x1, x2));
+            int minRow = rowOf(Math.min(y1, y2));
+            int maxRow = rowOf(Math.max(y1, y2));
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    buckets.get(row * COLUMNS + column).removeIf(segment -> segment.line == line);
+                }
+            }
+        }
+        line.setOrder(-1);
+    }
+
+    public void clear() {
+        for (List<Segment> bucket : buckets) {
+            bucket.clear();
+        }
+        nextOrder = 0;
+    }
+
+    // Finds the first finished line the ball touches while moving by (dx, dy) and
+    // records it in hit; lines drawn earlier win contacts at the same time
+    public void sweep(BallStore balls, int ball, float dx, float dy, PVector normal, SweepHit hit) {
+        hit.reset();
+        float x = balls.getX(ball);
+        float y = balls.getY(ball);
+        float radius = balls.getRadius(ball);
+        int minColumn = columnOf(Math.min(x, x + dx) - radius);
+        int maxColumn = columnOf(Math.max(x, x + dx) + radius);
+        int minRow = rowOf(Math.min(y, y + dy) - radius);
+        int maxRow = rowOf(Math.max(y, y + dy) + radius);
+        Segment first = null;
+        sweepStamp++;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                List<Segment> bucket = buckets.get(row * COLUMNS + column);
+                for (int i = 0; i < bucket.size(); i++) {
+                    Segment segment = bucket.get(i);
+                    if (!isFinished(segment) || segment.stamp == sweepStamp) {
+                        continue;
+                    }
+                    segment.stamp = sweepStamp;
+                    float time = segment.line.sweepSegment(balls, ball, dx, dy, segment.index, normal);
+                    if (time < hit.time || (time == hit.time && time <= 1 && isEarlier(segment, first))) {
+                        first = segment;
+                        hit.time = time;
+                        hit.normalX = normal.x;
+                        hit.normalY = normal.y;
+                        hit.line = segment.line;
+                    }
+                }
+            }
+        }
+    }
+
+    // Returns the finished line within eraser range of the point, or null
+    public PlayerLine findLineAt(int x, int y) {
+        int minColumn = columnOf(x - PlayerLine.ERASE_DISTANCE);
+        int maxColumn = columnOf(x + PlayerLine.ERASE_DISTANCE);
+        int minRow = rowOf(y - PlayerLine.ERASE_DISTANCE);
+        int maxRow = rowOf(y + PlayerLine.ERASE_DISTANCE);
+        Segment hit = null;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                List<Segment> bucket = buckets.get(row * COLUMNS + column);
+                for (int i = 0; i < bucket.size(); i++) {
+                    Segment segment = bucket.get(i);
+                    if (isFinished(segment) && isEarlier(segment, hit)
+                            && segment.line.segmentContainsPoint(x, y, segment.index)) {
+                        hit = segment;
+                    }
+                }
+            }
+        }
+        return hit == null ? null : hit.line;
+    }
+
+    private boolean isFinished(Segment segment) {
+        return segment.line.getOrder() >= 0;
+    }
+
+    private boolean isEarlier(Segment segment, Segment current) {
+        if (current == null) {
+            return true;
+        }
+        if (segment.line.getOrder() != current.line.getOrder()) {
+            return segment.line.getOrder() < current.line.getOrder();
+        }
+        return segment.index < current.index;
+    }
+
+    // Out-of-board coordinates are clamped to the edge cells, which keeps overlap tests conservative
+    private int columnOf(float x) {
+        return Math.max(0, Math.min(COLUMNS - 1, (int) Math.floor(x / App.CELLSIZE)));
+    }
+
+    private int rowOf(float y) {
+        return Math.max(0, Math.min(ROWS - 1, (int) Math.floor((y - App.TOPBAR) / App.CELLSIZE)));
+    }
+}
@@ -0,0 +1,213 @@
+package inkball;
+
+import java.io.PrintStream;
+
+// Leveled logging that keeps console I/O off the game thread. Callers copy a
+// constant message and up to two numbers into a preallocated ring buffer slot;
+// a daemon thread formats and prints them. When the buffer is full new events
+// are dropped and counted rather than blocking the caller.
+//
+// The threshold comes from -Dinkball.log=debug|info|warn|error (default info).
+// Hot-path call sites guard on Log.DEBUG, a static final flag the JIT folds
+// away when debug output is off.
+public final class Log {
+
+    public enum Severity {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    public static final Severity THRESHOLD = parseThreshold(System.getProperty("inkball.log", "info"));
+    public static final boolean DEBUG = THRESHOLD == Severity.DEBUG;
+
+    private static final int CAPACITY = 4096; // Must be a power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_WAIT_MILLIS = 10;
+
+    // Argument kinds stored per slot
+    private static final byte NONE = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+
+    private static final Severity[] severities = new Severity[CAPACITY];
+    private static final String[] messages = new String[CAPACITY];
+    private static final byte[] argCounts = new byte[CAPACITY];
+    private static final byte[] firstKinds = new byte[CAPACITY];
+    private static final byte[] secondKinds = new byte[CAPACITY];
+    private static final double[] firstArgs = new double[CAPACITY];
+    private static final double[] secondArgs = new double[CAPACITY];
+
+    private static final Object lock = new Object();
+    private static final Object drainLock = new Object();
+    private static long head; // Next slot to print
+    private static long tail; // Next slot to fill
+    private static long dropped;
+
+    private static final StringBuilder line = new StringBuilder(128);
+
+    static {
+        Thread writer = new Thread(Log::drainForever, "inkball-log");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "inkball-log-flush"));
+    }
+
+    private Log() {
+    }
+
+    public static boolean isEnabled(Severity severity) {
+        return severity.compareTo(THRESHOLD) >= 0;
+    }
+
+    public static void debug(String message) {
+        publish(Severity.DEBUG, message, 0, NONE, 0, NONE, 0);
+    }
+
+    public static void debug(String message, long value) {
+        publish(Severity.DEBUG, message, 1, LONG, value, NONE, 0);
+    }
+
+    public static void debug(String message, double first, double second) {
+        publish(Severity.DEBUG, message, 2, DOUBLE, first, DOUBLE, second);
+    }
+
+    public static void info(String message) {
+        publish(Severity.INFO, message, 0, NONE, 0, NONE, 0);
+    }
+
+    public static void info(String message, long value) {
+        publish(Severity.INFO, message, 1, LONG, value, NONE, 0);
+    }
+
+    public static void info(String message, double value) {
+        publish(Severity.INFO, message, 1, DOUBLE, value, NONE, 0);
+    }
+
+    public static void warn(String message) {
+        publish(Severity.WARN, message, 0, NONE, 0, NONE, 0);
+    }
+
+    public static void warn(String message, long value) {
+        publish(Severity.WARN, message, 1, LONG, value, NONE, 0);
+    }
+
+    public static void error(String message) {
+        publish(Severity.ERROR, message, 0, NONE, 0, NONE, 0);
+    }
+
+    private static void publish(Severity severity, String message, int argCount,
+                                byte firstKind, double first, byte secondKind, double second) {
+        if (!isEnabled(severity)) {
+            return;
+        }
+        synchronized (lock) {
+            if (tail - head == CAPACITY) {
+                dropped++;
+                return;
+            }
+            int slot = (int) (tail & MASK);
+            severities[slot] = severity;
+            messages[slot] = message;
+            argCounts[slot] = (byte) argCount;
+            firstKinds[slot] = firstKind;
+            firstArgs[slot] = first;
+            secondKinds[slot] = secondKind;
+            secondArgs[slot] = second;
+            tail++;
+        }
+    }
+
+    // Prints everything queued so far; also run at shutdown so the last events are not lost
+    public static void flush() {
+        while (drainOne()) {
+            // Keep draining
+        }
+        System.out.flush();
+        System.err.flush();
+    }
+
+    private static void drainForever() {
+        while (true) {
+            if (!drainOne()) {
+                try {
+                    Thread.sleep(IDLE_WAIT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean drainOne() {
+        synchronized (drainLock) {
+            Severity severity;
+            String message;
+            int argCount;
+            byte firstKind;
+            byte secondKind;
+            double first;
+            double second;
+            long droppedSoFar;
+            synchronized (lock) {
+                if (head == tail && dropped == 0) {
+                    return false;
+                }
+                droppedSoFar = dropped;
+                dropped = 0;
+                if (head == tail) {
+                    severity = null;
+                    message = null;
+                    argCount = 0;
+                    firstKind = NONE;
+                    secondKind = NONE;
+                    first = 0;
+                    second = 0;
+                } else {
+                    int slot = (int) (head & MASK);
+                    severity = severities[slot];
+                    message = messages[slot];
+                    argCount = argCounts[slot];
+                    firstKind = firstKinds[slot];
+                    secondKind = secondKinds[slot];
+                    first = firstArgs[slot];
+                    second = secondArgs[slot];
+                    messages[slot] = null;
+                    head++;
+                }
+            }
+
+            if (droppedSoFar > 0) {
+                System.err.println("[WARN] Log buffer full, dropped " + droppedSoFar + " messages");
+            }
+            if (severity != null) {
+                line.setLength(0);
+                line.append('[').append(severity).append("] ").append(message);
+                if (argCount > 0) {
+                    appendArg(firstKind, first);
+                }
+                if (argCount > 1) {
+                    appendArg(secondKind, second);
+                }
+                PrintStream out = severity.compareTo(Severity.WARN) >= 0 ? System.err : System.out;
+                out.println(line);
+            }
+            return true;
+        }
+    }
+
+    private static void appendArg(byte kind, double value) {
+        line.append(' ');
+        if (kind == LONG) {
+            line.append((long) value);
+        } else {
+            line.append(value);
+        }
+    }
+
+    private static Severity parseThreshold(String name) {
+        try {
+            return Severity.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Severity.INFO;
+        }
+    }
+}
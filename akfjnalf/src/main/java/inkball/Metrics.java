@@ -0,0 +1,67 @@
+package inkball;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registry of named latency histograms for per-phase timing, e.g. "level.updateBalls"
+// or "draw.topBar". Code keeps the histogram it records into in a static final
+// field and times phases with now() and recordSince(); dump() prints p50, p99
+// and p99.9 of every phase on demand, and getHistograms() gives the same data
+// to code.
+//
+// Controlled by -Dinkball.metrics=off|on|detail (default off). "on" times the
+// phases of a tick and of a frame; "detail" also times the collision passes of
+// every ball, which costs a clock read per ball per pass. ENABLED and DETAIL
+// are static final flags, so the JIT removes the timers entirely when off.
+public final class Metrics {
+    private static final String SETTING = System.getProperty("inkball.metrics", "off");
+    public static final boolean DETAIL = SETTING.equalsIgnoreCase("detail");
+    public static final boolean ENABLED = DETAIL || SETTING.equalsIgnoreCase("on");
+
+    private static final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    // The histogram registered under name, created on first use
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    // Start time for a timed phase; 0 when metrics are off
+    public static long now() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    // Every registered histogram, by name
+    public static List<LatencyHistogram> getHistograms() {
+        List<LatencyHistogram> all = new ArrayList<>(histograms.values());
+        all.sort(Comparator.comparing(LatencyHistogram::getName));
+        return all;
+    }
+
+    public static void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    // Prints one line per phase that has recordings, times in microseconds
+    public static void dump(PrintStream out) {
+        out.printf("%-28s %10s %9s %9s %9s %9s%n", "phase (us)", "count", "p50", "p99", "p99.9", "max");
+        for (LatencyHistogram histogram : getHistograms()) {
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            out.printf("%-28s %10d %9.1f %9.1f %9.1f %9.1f%n", histogram.getName(), histogram.getCount(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMax() / 1000.0);
+        }
+        out.flush();
+    }
+}
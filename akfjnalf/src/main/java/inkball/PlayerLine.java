@@ -1,108 +1,120 @@
-package inkball;
-
-import processing.core.PVector;
-import java.util.ArrayList;
-import java.util.List;
-
-public class PlayerLine {
-    private List<PVector> points;
-
-    public PlayerLine(int x, int y) {
-        points = new ArrayList<>();
-        points.add(new PVector(x, y));
-    }
-
-    public void addPoint(int x, int y) {
-        PVector lastPoint = points.get(points.size() - 1);
-        PVector newPoint = new PVector(x, y);
-        if (PVector.dist(lastPoint, newPoint) >= 5) {
-            points.add(newPoint);
-        }
-    }
-
-    public boolean collidesWith(Ball ball) {
-        PVector ballPos = ball.getPosition();
-        PVector ballNextPos = PVector.add(ballPos, ball.getVelocity());
-        float ballRadius = ball.getRadius();
-
-        for (int i = 0; i < points.size() - 1; i++) {
-            PVector p1 = points.get(i);
-            PVector p2 = points.get(i + 1);
-
-            if (lineSegmentCollision(ballNextPos, ballRadius, p1, p2)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean lineSegmentCollision(PVector ballNextPos, float ballRadius, PVector p1, PVector p2) {
-        float distanceToLine = distancePointToSegment(ballNextPos, p1, p2);
-        return distanceToLine <= ballRadius;
-    }
-
-    public PVector getNormal(Ball ball) {
-        PVector ballPos = ball.getPosition();
-        PVector ballNextPos = PVector.add(ballPos, ball.getVelocity());
-
-        for (int i = 0; i < points.size() - 1; i++) {
-            PVector p1 = points.get(i);
-            PVector p2 = points.get(i + 1);
-
-            if (lineSegmentCollision(ballNextPos, ball.getRadius(), p1, p2)) {
-                PVector lineVector = PVector.sub(p2, p1);
-                PVector normal1 = new PVector(-lineVector.y, lineVector.x);
-                PVector normal2 = new PVector(lineVector.y, -lineVector.x);
-                
-                normal1.normalize();
-                normal2.normalize();
-
-                PVector midpoint = PVector.add(p1, p2).div(2);
-                PVector midpoint1 = PVector.add(midpoint, normal1);
-                PVector midpoint2 = PVector.add(midpoint, normal2);
-
-                if (PVector.dist(ballPos, midpoint1) < PVector.dist(ballPos, midpoint2)) {
-                    return normal1;
-                } else {
-                    return normal2;
-                }
-            }
-        }
-
-        return new PVector(0, 1); // Default normal if no collision
-    }
-
-    private float distancePointToSegment(PVector p, PVector v, PVector w) {
-        float l2 = PVector.dist(v, w) * PVector.dist(v, w);
-        if (l2 == 0) return PVector.dist(p, v);
-        float t = Math.max(0, Math.min(1, PVector.dot(PVector.sub(p, v), PVector.sub(w, v)) / l2));
-        PVector projection = PVector.add(v, PVector.mult(PVector.sub(w, v), t));
-        return PVector.dist(p, projection);
-    }
-
-    public void display(App app) {
-        app.stroke(0);
-        app.strokeWeight(10);
-        for (int i = 0; i < points.size() - 1; i++) {
-            PVector p1 = points.get(i);
-            PVector p2 = points.get(i + 1);
-            app.line(p1.x, p1.y, p2.x, p2.y);
-        }
-    }
-
-    public boolean containsPoint(int x, int y) {
-        PVector point = new PVector(x, y);
-        for (int i = 0; i < points.size() - 1; i++) {
-            PVector p1 = points.get(i);
-            PVector p2 = points.get(i + 1);
-            if (distancePointToSegment(point, p1, p2) <= 5) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    public List<PVector> getPoints() {
-        return points;
-    }
-}
\ No newline at end of file
+package inkball;
+
+import processing.core.PVector;
+
+import java.util.Arrays;
+
+// Points are kept interleaved (x0, y0, x1, y1, ...) in one float array, which
+// is trimmed to size when the stroke is simplified on finishing
+public class PlayerLine {
+    public static final float ERASE_DISTANCE = 5;
+
+    private float[] points;
+    private int pointCount;
+    private int order = -1; // Set by LineSegmentIndex once the line is finished
+
+    public PlayerLine(int x, int y) {
+        points = new float[32];
+        points[0] = x;
+        points[1] = y;
+        pointCount = 1;
+    }
+
+    // Returns true if the point was far enough from the last one to be kept
+    public boolean addPoint(int x, int y) {
+        if (VectorMath.distanceSquared(getX(pointCount - 1), getY(pointCount - 1), x, y) >= 5 * 5) {
+            if (pointCount * 2 == points.length) {
+                points = Arrays.copyOf(points, points.length * 2);
+            }
+            points[pointCount * 2] = x;
+            points[pointCount * 2 + 1] = y;
+            pointCount++;
+            return true;
+        }
+        return false;
+    }
+
+    // Douglas-Peucker: drops every point whose removal moves the line by no more
+    // than tolerance, keeping both ends. Uses an explicit stack of spans, so long
+    // scribbles cannot overflow the call stack.
+    public void simplify(float tolerance) {
+        if (pointCount <= 2) {
+            points = Arrays.copyOf(points, pointCount * 2);
+            return;
+        }
+        boolean[] keep = new boolean[pointCount];
+        keep[0] = true;
+        keep[pointCount - 1] = true;
+        int[] spans = new int[pointCount * 2];
+        int top = 0;
+        spans[top++] = 0;
+        spans[top++] = pointCount - 1;
+        float toleranceSquared = tolerance * tolerance;
+        while (top > 0) {
+            int last = spans[--top];
+            int first = spans[--top];
+            int farthest = -1;
+            float farthestDistance = toleranceSquared;
+            for (int i = first + 1; i < last; i++) {
+                float distance = VectorMath.distanceSquaredToSegment(getX(i), getY(i),
+                        getX(first), getY(first), getX(last), getY(last));
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                spans[top++] = first;
+                spans[top++] = farthest;
+                spans[top++] = farthest;
+                spans[top++] = last;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < pointCount; i++) {
+            if (keep[i]) {
+                points[kept * 2] = points[i * 2];
+                points[kept * 2 + 1] = points[i * 2 + 1];
+                kept++;
+            }
+        }
+        pointCount = kept;
+        points = Arrays.copyOf(points, kept * 2);
+    }
+
+    // Time of impact of the ball moving by (dx, dy) against one segment; see VectorMath.sweepCircleToSegment
+    public float sweepSegment(BallStore balls, int ball, float dx, float dy, int segment, PVector normalOut) {
+        return VectorMath.sweepCircleToSegment(balls.getX(ball), balls.getY(ball), dx, dy,
+                getX(segment), getY(segment), getX(segment + 1), getY(segment + 1), balls.getRadius(ball), normalOut);
+    }
+
+    private float distanceSquaredToSegment(float x, float y, int segment) {
+        return VectorMath.distanceSquaredToSegment(x, y, getX(segment), getY(segment), getX(segment + 1), getY(segment + 1));
+    }
+
+    public boolean segmentContainsPoint(int x, int y, int segment) {
+        return distanceSquaredToSegment(x, y, segment) <= ERASE_DISTANCE * ERASE_DISTANCE;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public float getX(int i) {
+        return points[i * 2];
+    }
+
+    public float getY(int i) {
+        return points[i * 2 + 1];
+    }
+
+    int getOrder() {
+        return order;
+    }
+
+    void setOrder(int order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,129 @@
+package inkball;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Everything draw() needs from one simulation tick, copied out of the Game on
+// the simulation thread so the renderer never reads live state. Finished lines
+// never change once drawn, so they are shared by reference; the stroke still
+// being drawn is copied. Frames are reused: see Simulation for how they are
+// handed between the two threads.
+public final class RenderFrame {
+    private final BallStore balls = new BallStore();
+    private final List<PlayerLine> playerLines = new ArrayList<>();
+    private float[] stroke = new float[64]; // Interleaved points of the unfinished line
+    private int strokePoints;
+    private int[] nextBalls = new int[8];
+    private int nextBallCount;
+    private LevelTemplate template;
+    private int score;
+    private int remainingTime;
+    private float spawnTimeRemaining;
+    private boolean timedOut;
+    private boolean ended;
+    private boolean paused;
+    private int tick;
+    private long tickNanos; // System.nanoTime() at which the tick was due
+    boolean fresh; // Published by the simulation and not yet taken by the renderer
+
+    // Copies the game's current state, reusing this frame's storage
+    void capture(Game game, boolean paused, long tickNanos) {
+        Level level = game.getCurrentLevel();
+        balls.copyFrom(level.getBalls());
+        playerLines.clear();
+        playerLines.addAll(level.getPlayerLines());
+
+        PlayerLine current = level.getCurrentLine();
+        strokePoints = current == null ? 0 : current.getPointCount();
+        if (stroke.length < strokePoints * 2) {
+            stroke = new float[strokePoints * 4];
+        }
+        for (int i = 0; i < strokePoints; i++) {
+            stroke[i * 2] = current.getX(i);
+            stroke[i * 2 + 1] = current.getY(i);
+        }
+
+        nextBallCount = level.getNextBallCount();
+        if (nextBalls.length < nextBallCount) {
+            nextBalls = Arrays.copyOf(nextBalls, nextBallCount * 2);
+        }
+        for (int i = 0; i < nextBallCount; i++) {
+            nextBalls[i] = level.getNextBall(i);
+        }
+
+        template = level.getTemplate();
+        score = game.getScore();
+        remainingTime = level.getRemainingTime();
+        spawnTimeRemaining = level.getSpawnTimeRemaining();
+        timedOut = level.isTimedOut();
+        ended = game.isEnded();
+        this.paused = paused;
+        tick = game.getTick();
+        this.tickNanos = tickNanos;
+    }
+
+    public BallStore getBalls() {
+        return balls;
+    }
+
+    public List<PlayerLine> getPlayerLines() {
+        return playerLines;
+    }
+
+    public int getStrokePointCount() {
+        return strokePoints;
+    }
+
+    public float getStrokeX(int i) {
+        return stroke[i * 2];
+    }
+
+    public float getStrokeY(int i) {
+        return stroke[i * 2 + 1];
+    }
+
+    public int getNextBallCount() {
+        return nextBallCount;
+    }
+
+    public int getNextBall(int i) {
+        return nextBalls[i];
+    }
+
+    public LevelTemplate getTemplate() {
+        return template;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getRemainingTime() {
+        return remainingTime;
+    }
+
+    public float getSpawnTimeRemaining() {
+        return spawnTimeRemaining;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+}
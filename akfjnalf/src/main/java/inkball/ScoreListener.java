@@ -0,0 +1,6 @@
+package inkball;
+
+// Receives score changes from a Level when a ball is captured by a hole
+public interface ScoreListener {
+    void scoreChanged(int scoreChange);
+}
@@ -0,0 +1,217 @@
+package inkball;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hosts many headless games in one JVM, e.g. bots in training or tournament
+// matches. Every session is its own Game with its own seeded Random, its own
+// tick clock (a Simulation loop) and its own input mailbox; sessions share only
+// the immutable level templates. The front door is this in-process API:
+// open() a session, send() it input, read its latest frame, close() it.
+//
+// Each session loop runs as one task on a virtual thread when the JVM has them
+// (Java 21+), looked up reflectively so the game still builds for older JDKs;
+// otherwise on a pool of daemon platform threads. Admission control caps the
+// number of live sessions, and open() refuses new ones once the cap is reached.
+//
+// Usage: SessionServer [config.json] [sessions] [seconds] [max sessions]
+public class SessionServer implements AutoCloseable {
+
+    // One hosted game. Inputs from any thread are serialised onto the mailbox,
+    // which the session's loop drains once per tick.
+    public static final class Session {
+        private final int id;
+        private final long seed;
+        private final InputQueue mailbox = new InputQueue();
+        private final Simulation simulation;
+
+        Session(int id, long seed, Game game, long tickNanos) {
+            this.id = id;
+            this.seed = seed;
+            this.simulation = new Simulation(game, mailbox, null, tickNanos);
+        }
+
+        // Queues an input event of one of InputRecorder's types; false if the mailbox is full
+        public synchronized boolean send(byte type, int x, int y) {
+            return mailbox.offer(type, x, y);
+        }
+
+        // The session's newest published state; call from one reader thread at a time
+        public synchronized RenderFrame getFrame() {
+            return simulation.acquireFrame();
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public long getTicks() {
+            return simulation.getTicks();
+        }
+
+        public float getMeasuredTickRate() {
+            return simulation.getMeasuredTickRate();
+        }
+    }
+
+    private final GameSpec spec;
+    private final LevelCatalog catalog;
+    private final long tickNanos;
+    private final Semaphore admission;
+    private final ExecutorService executor;
+    private final Map<Integer, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    public SessionServer(GameSpec spec, LevelCatalog catalog, int maxSessions) {
+        this.spec = spec;
+        this.catalog = catalog;
+        this.tickNanos = 1_000_000_000L / spec.getSimulationRate();
+        this.admission = new Semaphore(maxSessions);
+        this.executor = newSessionExecutor();
+    }
+
+    public static SessionServer load(Path configPath, int maxSessions) throws IOException {
+        GameSpec spec = LevelLoader.loadSpec(configPath);
+        return new SessionServer(spec, LevelCatalog.of(spec, LevelLoader.loadTemplates(configPath, spec)), maxSessions);
+    }
+
+    private static ExecutorService newSessionExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            Log.info("Sessions run on virtual threads");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            Log.info("Sessions run on platform threads");
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "inkball-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // Starts a game on the given seed, or returns null if the server is at capacity
+    public Session open(long seed) {
+        if (!admission.tryAcquire()) {
+            rejected.incrementAndGet();
+            return null;
+        }
+        Session session;
+        try {
+            int id = nextId.incrementAndGet();
+            session = new Session(id, seed, new Game(spec, catalog, seed), tickNanos);
+        } catch (RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+        // Registered before starting so a loop that fails straight away can still close itself
+        sessions.put(session.getId(), session);
+        session.simulation.setFailureHandler(() -> close(session));
+        try {
+            session.simulation.start(executor);
+        } catch (RuntimeException e) {
+            sessions.remove(session.getId());
+            admission.release();
+            throw e;
+        }
+        return session;
+    }
+
+    public Session get(int id) {
+        return sessions.get(id);
+    }
+
+    public Collection<Session> getSessions() {
+        return sessions.values();
+    }
+
+    // Stops the session's loop and frees its slot; also run when a session's loop fails
+    public void close(Session session) {
+        if (sessions.remove(session.getId(), session)) {
+            session.simulation.stop();
+            admission.release();
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    // Opens refused because the server was full
+    public int getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() {
+        for (Session session : new ArrayList<>(sessions.values())) {
+            close(session);
+        }
+        executor.shutdown();
+    }
+
+    // Load test: opens sessions whose bots draw a line every few seconds, runs them, then reports tick rates
+    public static void main(String[] args) throws Exception {
+        Path configPath = Paths.get(args.length > 0 ? args[0] : "config.json");
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int maxSessions = args.length > 3 ? Integer.parseInt(args[3]) : count;
+
+        try (SessionServer server = load(configPath, maxSessions)) {
+            Random random = new Random(1);
+            List<Session> opened = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Session session = server.open(random.nextLong());
+                if (session != null) {
+                    opened.add(session);
+                }
+            }
+            System.out.printf("Opened %d sessions, rejected %d%n", opened.size(), server.getRejectedCount());
+
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            while (System.nanoTime() < end) {
+                for (Session session : opened) {
+                    if (random.nextInt(server.spec.getSimulationRate() * 3) == 0) {
+                        int x = App.CELLSIZE + random.nextInt(App.WIDTH - 3 * App.CELLSIZE);
+                        int y = App.TOPBAR + App.CELLSIZE + random.nextInt(App.HEIGHT - App.TOPBAR - 3 * App.CELLSIZE);
+                        session.send(InputRecorder.START_LINE, x, y);
+                        session.send(InputRecorder.CONTINUE_LINE, x + App.CELLSIZE, y);
+                        session.send(InputRecorder.FINISH_LINE, 0, 0);
+                    }
+                }
+                Thread.sleep(1000 / server.spec.getSimulationRate());
+            }
+
+            float slowest = Float.MAX_VALUE;
+            double total = 0;
+            for (Session session : opened) {
+                slowest = Math.min(slowest, session.getMeasuredTickRate());
+                total += session.getMeasuredTickRate();
+            }
+            System.out.printf("Target %d ticks/s per session; measured mean %.1f, slowest %.1f%n",
+                    server.spec.getSimulationRate(), total / Math.max(1, opened.size()), slowest);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.dump(System.out);
+        }
+        Log.flush();
+    }
+}
@@ -0,0 +1,210 @@
+package inkball;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a Game on its own thread at a fixed tick rate, so simulation and drawing
+// overlap instead of taking turns inside draw(). After every tick the state the
+// renderer needs is copied into a RenderFrame and published.
+//
+// Frames are triple buffered without locks: the simulation fills its back frame
+// and swaps it into the shared slot, the renderer swaps its front frame out of
+// the slot when a fresh one is waiting, and neither side ever touches a frame
+// the other one owns. draw() always sees the newest complete tick.
+//
+// The loop can also run as a task on an executor, which is how SessionServer
+// hosts many games at once, and it measures the tick rate it actually achieves.
+// Once the game has ended nothing changes until input arrives (a restart), so
+// the loop parks on the input queue instead of publishing identical frames.
+public final class Simulation implements Runnable {
+    private static final long MAX_LAG_NANOS = 250_000_000L; // Longest hitch the simulation catches up on
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000L; // Period the measured tick rate covers
+    private static final long IDLE_NANOS = 250_000_000L; // Longest an ended game sleeps between checks
+    private static final LatencyHistogram STEP_TIME = Metrics.histogram("simulation.step");
+    private static final LatencyHistogram CAPTURE_TIME = Metrics.histogram("simulation.capture");
+
+    private final Game game;
+    private final InputQueue input;
+    private final InputPlayback playback; // Null unless replaying
+    private final long tickNanos;
+    private final AtomicReference<RenderFrame> latest;
+    private RenderFrame back = new RenderFrame(); // Owned by the simulation thread
+    private RenderFrame front = new RenderFrame(); // Owned by the renderer
+    private volatile boolean paused;
+    private volatile boolean running;
+    private volatile Thread thread; // Whichever thread is running the loop
+    private volatile Runnable failureHandler; // Run if the loop dies on an exception
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    // Written by the loop only
+    private volatile long ticks;
+    private volatile float measuredTickRate;
+    private long windowStartNanos;
+    private long windowTicks;
+
+    public Simulation(Game game, InputQueue input, InputPlayback playback, long tickNanos) {
+        this.game = game;
+        this.input = input;
+        this.playback = playback;
+        this.tickNanos = tickNanos;
+        RenderFrame first = new RenderFrame();
+        first.capture(game, false, System.nanoTime());
+        first.fresh = true;
+        this.latest = new AtomicReference<>(first);
+    }
+
+    // Runs the loop on a dedicated daemon thread
+    public void start() {
+        start(runnable -> {
+            Thread thread = new Thread(runnable, "inkball-simulation");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    public void start(Executor executor) {
+        running = true;
+        try {
+            executor.execute(this);
+        } catch (RuntimeException e) {
+            running = false; // Never started, so stop() has nothing to wait for
+            throw e;
+        }
+    }
+
+    // Stops the loop and waits for the tick in progress, after which the Game may be read directly
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Called on the loop's thread after it has stopped on an uncaught exception
+    public void setFailureHandler(Runnable handler) {
+        this.failureHandler = handler;
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        boolean failed = false;
+        try {
+            loop();
+        } catch (RuntimeException e) {
+            Log.error("Simulation stopped: " + e);
+            running = false;
+            failed = true;
+        } finally {
+            thread = null;
+            finished.countDown();
+        }
+        Runnable handler = failureHandler;
+        if (failed && handler != null) {
+            handler.run();
+        }
+    }
+
+    private void loop() {
+        long due = System.nanoTime();
+        windowStartNanos = due;
+        while (running) {
+            long now = System.nanoTime();
+            if (now < due) {
+                LockSupport.parkNanos(due - now);
+                continue;
+            }
+            due = catchUp(due, now);
+            step(due);
+            due += tickNanos;
+            measure(now);
+            if (game.isEnded() && playback == null && input.isEmpty()) {
+                input.await(IDLE_NANOS); // Woken by input, setPaused() or stop()
+                due = System.nanoTime();
+            }
+        }
+    }
+
+    // When the next step is due, given the one that was due: steps missed by up to
+    // MAX_LAG_NANOS run back to back, a longer hitch drops the backlog rather than
+    // fast-forwarding through it
+    static long catchUp(long due, long now) {
+        return now - due > MAX_LAG_NANOS ? now : due;
+    }
+
+    private void measure(long now) {
+        windowTicks++;
+        if (now - windowStartNanos >= RATE_WINDOW_NANOS) {
+            measuredTickRate = windowTicks * 1e9f / (now - windowStartNanos);
+            windowStartNanos = now;
+            windowTicks = 0;
+        }
+    }
+
+    // One simulation tick: apply the input that arrived since the last one, advance
+    // the game unless it is paused or over, and publish the result
+    void step(long dueNanos) {
+        long start = Metrics.now();
+        if (playback != null) {
+            playback.applyDue(game);
+        }
+        input.drain(game);
+        boolean stopped = paused || game.isEnded();
+        if (!stopped) {
+            game.tick();
+            ticks++;
+        }
+        long captureStart = Metrics.now();
+        back.capture(game, paused, dueNanos);
+        back.fresh = true;
+        back = latest.getAndSet(back);
+        CAPTURE_TIME.recordSince(captureStart);
+        STEP_TIME.recordSince(start);
+    }
+
+    // Renderer side: the newest published frame, valid until the next call
+    public RenderFrame acquireFrame() {
+        if (latest.get().fresh) {
+            front.fresh = false;
+            front = latest.getAndSet(front);
+        }
+        return front;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current); // An idle loop publishes the change straight away
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    // Ticks simulated so far, not counting steps spent paused or ended
+    public long getTicks() {
+        return ticks;
+    }
+
+    // Steps per second over the last complete second the loop ran; low while an ended game idles
+    public float getMeasuredTickRate() {
+        return measuredTickRate;
+    }
+}
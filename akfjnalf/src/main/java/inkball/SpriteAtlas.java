@@ -0,0 +1,94 @@
+package inkball;
+
+import processing.core.PConstants;
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// All game art packed into one backing image. Each sprite is added at the exact
+// size it is drawn at, scaled once while packing, so drawing one is an unscaled
+// copy of its region rather than a resample of the source PNG every frame.
+// Sprites are packed on shelves, tallest first.
+public class SpriteAtlas {
+    private static final int ATLAS_WIDTH = 256;
+
+    private final List<PImage> pending = new ArrayList<>();
+    private int[] regionX;
+    private int[] regionY;
+    private int[] regionWidth;
+    private int[] regionHeight;
+    private PImage atlas;
+
+    // Queues source scaled to width x height and returns its sprite id, or -1 for a missing image
+    public int add(PImage source, int width, int height) {
+        if (source == null || atlas != null) {
+            return -1;
+        }
+        PImage sprite = source;
+        if (source.width != width || source.height != height) {
+            sprite = source.copy();
+            sprite.resize(width, height);
+        }
+        pending.add(sprite);
+        return pending.size() - 1;
+    }
+
+    // Lays out every queued sprite and copies them into the backing image
+    public void pack() {
+        int count = pending.size();
+        regionX = new int[count];
+        regionY = new int[count];
+        regionWidth = new int[count];
+        regionHeight = new int[count];
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> pending.get(b).height - pending.get(a).height);
+
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        for (int i : order) {
+            PImage sprite = pending.get(i);
+            if (x + sprite.width > ATLAS_WIDTH) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            regionX[i] = x;
+            regionY[i] = y;
+            regionWidth[i] = sprite.width;
+            regionHeight[i] = sprite.height;
+            x += sprite.width;
+            shelfHeight = Math.max(shelfHeight, sprite.height);
+        }
+
+        atlas = new PImage(ATLAS_WIDTH, Math.max(1, y + shelfHeight), PConstants.ARGB);
+        for (int i = 0; i < count; i++) {
+            pending.get(i).loadPixels();
+            atlas.set(regionX[i], regionY[i], pending.get(i));
+        }
+        pending.clear();
+        Log.info("Packed sprites into atlas:", count);
+    }
+
+    // Draws a sprite with its top-left corner at (x, y); missing sprites draw nothing
+    public void draw(PGraphics g, int sprite, float x, float y) {
+        if (sprite < 0) {
+            return;
+        }
+        int width = regionWidth[sprite];
+        int height = regionHeight[sprite];
+        g.image(atlas, x, y, width, height,
+                regionX[sprite], regionY[sprite], regionX[sprite] + width, regionY[sprite] + height);
+    }
+
+    public PImage getImage() {
+        return atlas;
+    }
+}
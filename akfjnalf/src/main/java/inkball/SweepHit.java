@@ -0,0 +1,24 @@
+package inkball;
+
+// Earliest contact found while sweeping a ball along its motion for a tick: when
+// (as a fraction of the motion), the contact normal, and the wall block or line hit.
+// Level keeps one per kind of obstacle and reuses them every sweep.
+final class SweepHit {
+    float time;
+    float normalX;
+    float normalY;
+    WallBlock wall;
+    PlayerLine line;
+
+    void reset() {
+        time = VectorMath.NO_HIT;
+        normalX = 0;
+        normalY = 0;
+        wall = null;
+        line = null;
+    }
+
+    boolean isHit() {
+        return time <= 1;
+    }
+}
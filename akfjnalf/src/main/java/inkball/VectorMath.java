@@ -0,0 +1,211 @@
+package inkball;
+
+import processing.core.PVector;
+
+// Scalar versions of the vector operations used by the collision code, so the
+// per-tick path works on floats instead of allocating PVectors
+public final class VectorMath {
+
+    private VectorMath() {
+    }
+
+    public static float distanceSquared(float x1, float y1, float x2, float y2) {
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    // Squared distance from point (px, py) to the segment (x1, y1)-(x2, y2)
+    public static float distanceSquaredToSegment(float px, float py, float x1, float y1, float x2, float y2) {
+        float segmentX = x2 - x1;
+        float segmentY = y2 - y1;
+        float l2 = segmentX * segmentX + segmentY * segmentY;
+        if (l2 == 0) {
+            return distanceSquared(px, py, x1, y1);
+        }
+        float t = Math.max(0, Math.min(1, ((px - x1) * segmentX + (py - y1) * segmentY) / l2));
+        return distanceSquared(px, py, x1 + segmentX * t, y1 + segmentY * t);
+    }
+
+    // Swept-circle tests. A circle of radius r at (px, py) moves by (dx, dy); each
+    // test returns the fraction t in [0, 1] of that motion at which it first touches
+    // the shape, or NO_HIT, and writes the unit contact normal (pointing from the
+    // shape towards the circle) into out. A circle that already overlaps the shape
+    // hits at t = 0 if it is moving further in and misses if it is moving out, so a
+    // ball left resting in contact after a bounce is not caught again.
+    public static final float NO_HIT = Float.POSITIVE_INFINITY;
+
+    // Against a single point, e.g. a box corner or segment end
+    public static float sweepCircleToPoint(float px, float py, float dx, float dy, float cx, float cy, float r, PVector out) {
+        float mx = px - cx;
+        float my = py - cy;
+        float b = mx * dx + my * dy;
+        if (b >= 0) {
+            return NO_HIT; // Not approaching
+        }
+        float a = dx * dx + dy * dy;
+        float c = mx * mx + my * my - r * r;
+        if (c <= 0) {
+            normalize(mx, my, out);
+            return 0;
+        }
+        float discriminant = b * b - a * c;
+        if (discriminant < 0) {
+            return NO_HIT;
+        }
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        if (t > 1) {
+            return NO_HIT;
+        }
+        t = Math.max(0, t);
+        normalize(mx + dx * t, my + dy * t, out);
+        return t;
+    }
+
+    // Against the segment (x1, y1)-(x2, y2): its two sides and its rounded ends
+    public static float sweepCircleToSegment(float px, float py, float dx, float dy,
+                                             float x1, float y1, float x2, float y2, float r, PVector out) {
+        float segmentX = x2 - x1;
+        float segmentY = y2 - y1;
+        float length = (float) Math.sqrt(segmentX * segmentX + segmentY * segmentY);
+        if (length == 0) {
+            return sweepCircleToPoint(px, py, dx, dy, x1, y1, r, out);
+        }
+        float nx = -segmentY / length;
+        float ny = segmentX / length;
+        float side = (px - x1) * nx + (py - y1) * ny;
+        if (side < 0) {
+            nx = -nx;
+            ny = -ny;
+            side = -side;
+        }
+
+        if (distanceSquaredToSegment(px, py, x1, y1, x2, y2) <= r * r) {
+            float along = Math.max(0, Math.min(length, ((px - x1) * segmentX + (py - y1) * segmentY) / length));
+            float awayX = px - (x1 + segmentX / length * along);
+            float awayY = py - (y1 + segmentY / length * along);
+            if (awayX == 0 && awayY == 0) {
+                awayX = nx;
+                awayY = ny;
+            }
+            if (awayX * dx + awayY * dy >= 0) {
+                return NO_HIT;
+            }
+            normalize(awayX, awayY, out);
+            return 0;
+        }
+
+        float best = NO_HIT;
+        float approach = dx * nx + dy * ny;
+        if (approach < 0 && side >= r) {
+            float t = (r - side) / approach;
+            if (t <= 1) {
+                float along = ((px + dx * t - x1) * segmentX + (py + dy * t - y1) * segmentY) / length;
+                if (along >= 0 && along <= length) {
+                    best = t;
+                    out.set(nx, ny);
+                }
+            }
+        }
+        best = sweepCorner(px, py, dx, dy, x1, y1, r, best, out);
+        return sweepCorner(px, py, dx, dy, x2, y2, r, best, out);
+    }
+
+    // Against the axis-aligned box [left, right] x [top, bottom]: its four edges and rounded corners
+    public static float sweepCircleToBox(float px, float py, float dx, float dy,
+                                         float left, float top, float right, float bottom, float r, PVector out) {
+        float closestX = Math.max(left, Math.min(px, right));
+        float closestY = Math.max(top, Math.min(py, bottom));
+        if (distanceSquared(px, py, closestX, closestY) <= r * r) {
+            float awayX = px - closestX;
+            float awayY = py - closestY;
+            if (awayX == 0 && awayY == 0) {
+                // Centre inside the box: push out through the nearest edge
+                float toLeft = px - left;
+                float toRight = right - px;
+                float toTop = py - top;
+                float toBottom = bottom - py;
+                float nearest = Math.min(Math.min(toLeft, toRight), Math.min(toTop, toBottom));
+                if (nearest == toLeft) {
+                    awayX = -1;
+                } else if (nearest == toRight) {
+                    awayX = 1;
+                } else if (nearest == toTop) {
+                    awayY = -1;
+                } else {
+                    awayY = 1;
+                }
+            }
+            if (awayX * dx + awayY * dy >= 0) {
+                return NO_HIT;
+            }
+            normalize(awayX, awayY, out);
+            return 0;
+        }
+
+        float best = NO_HIT;
+        float nx = 0;
+        float ny = 0;
+        if (dx > 0 && px <= left - r) {
+            float t = (left - r - px) / dx;
+            float y = py + dy * t;
+            if (t <= 1 && y >= top && y <= bottom) {
+                best = t;
+                nx = -1;
+                ny = 0;
+            }
+        } else if (dx < 0 && px >= right + r) {
+            float t = (right + r - px) / dx;
+            float y = py + dy * t;
+            if (t <= 1 && y >= top && y <= bottom) {
+                best = t;
+                nx = 1;
+                ny = 0;
+            }
+        }
+        if (dy > 0 && py <= top - r) {
+            float t = (top - r - py) / dy;
+            float x = px + dx * t;
+            if (t < best && t <= 1 && x >= left && x <= right) {
+                best = t;
+                nx = 0;
+                ny = -1;
+            }
+        } else if (dy < 0 && py >= bottom + r) {
+            float t = (bottom + r - py) / dy;
+            float x = px + dx * t;
+            if (t < best && t <= 1 && x >= left && x <= right) {
+                best = t;
+                nx = 0;
+                ny = 1;
+            }
+        }
+        out.set(nx, ny);
+        best = sweepCorner(px, py, dx, dy, left, top, r, best, out);
+        best = sweepCorner(px, py, dx, dy, right, top, r, best, out);
+        best = sweepCorner(px, py, dx, dy, left, bottom, r, best, out);
+        return sweepCorner(px, py, dx, dy, right, bottom, r, best, out);
+    }
+
+    // Keeps whichever comes first of the hit so far (time best, normal in out) and one on the point (cx, cy)
+    private static float sweepCorner(float px, float py, float dx, float dy, float cx, float cy, float r, float best, PVector out) {
+        float bestX = out.x;
+        float bestY = out.y;
+        float t = sweepCircleToPoint(px, py, dx, dy, cx, cy, r, out);
+        if (t < best) {
+            return t;
+        }
+        out.set(bestX, bestY);
+        return best;
+    }
+
+    // Writes (x, y) scaled to unit length into out; a zero vector stays zero like PVector.normalize
+    public static PVector normalize(float x, float y, PVector out) {
+        float length = (float) Math.sqrt(x * x + y * y);
+        if (length != 0 && length != 1) {
+            x /= length;
+            y /= length;
+        }
+        return out.set(x, y);
+    }
+}
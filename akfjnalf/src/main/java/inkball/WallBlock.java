@@ -0,0 +1,54 @@
+package inkball;
+
+import processing.core.PVector;
+
+// A rectangle of same-coloured wall tiles merged when the layout is loaded.
+// Balls collide with blocks rather than tiles, so a flat run of wall is one
+// box with exact edge normals and no seams between tiles for a ball to catch on.
+public class WallBlock {
+    private final int id; // Position in the grid's block list
+    private final float left;
+    private final float top;
+    private final float right;
+    private final float bottom;
+    private final int color;
+
+    public WallBlock(int id, float left, float top, float right, float bottom, int color) {
+        this.id = id;
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        this.color = color;
+    }
+
+    // Time of impact of the ball moving by (dx, dy) against the block; see VectorMath.sweepCircleToBox
+    public float sweep(BallStore balls, int ball, float dx, float dy, PVector normalOut) {
+        return VectorMath.sweepCircleToBox(balls.getX(ball), balls.getY(ball), dx, dy,
+                left, top, right, bottom, balls.getRadius(ball), normalOut);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public float getLeft() {
+        return left;
+    }
+
+    public float getTop() {
+        return top;
+    }
+
+    public float getRight() {
+        return right;
+    }
+
+    public float getBottom() {
+        return bottom;
+    }
+
+    public int getColor() {
+        return color;
+    }
+}
@@ -0,0 +1,103 @@
+package inkball;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Wall geometry indexed by board cell, built once per layout so collision checks
+// only visit the cells a ball's motion covers instead of every wall. Adjacent
+// tiles of the same colour are merged greedily into rectangles (the widest run
+// along a row, then as many rows down as match it), and each cell points at the
+// block covering it, so a ball resolves one contact per block.
+public class WallGrid {
+    private final int columns;
+    private final int rows;
+    private final WallBlock[] cells;
+    private final List<WallBlock> blocks;
+
+    public WallGrid(int columns, int rows, List<Wall> walls) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cells = new WallBlock[columns * rows];
+
+        int[] colors = new int[columns * rows];
+        Arrays.fill(colors, -1);
+        for (Wall wall : walls) {
+            int column = columnOf(wall.getX());
+            int row = rowOf(wall.getY());
+            if (column >= 0 && column < columns && row >= 0 && row < rows) {
+                colors[row * columns + column] = wall.getColor();
+            }
+        }
+
+        List<WallBlock> blocks = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int color = colors[row * columns + column];
+                if (color < 0 || cells[row * columns + column] != null) {
+                    continue;
+                }
+                int width = 1;
+                while (column + width < columns && isFree(colors, column + width, row, color)) {
+                    width++;
+                }
+                int height = 1;
+                while (row + height < rows && isRunFree(colors, column, row + height, width, color)) {
+                    height++;
+                }
+                WallBlock block = new WallBlock(blocks.size(),
+                        column * App.CELLSIZE, row * App.CELLSIZE + App.TOPBAR,
+                        (column + width) * App.CELLSIZE, (row + height) * App.CELLSIZE + App.TOPBAR, color);
+                blocks.add(block);
+                for (int r = row; r < row + height; r++) {
+                    for (int c = column; c < column + width; c++) {
+                        cells[r * columns + c] = block;
+                    }
+                }
+            }
+        }
+        this.blocks = Collections.unmodifiableList(blocks);
+    }
+
+    private boolean isFree(int[] colors, int column, int row, int color) {
+        return colors[row * columns + column] == color && cells[row * columns + column] == null;
+    }
+
+    private boolean isRunFree(int[] colors, int column, int row, int width, int color) {
+        for (int c = column; c < column + width; c++) {
+            if (!isFree(colors, c, row, color)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The block covering the cell, or null for an empty cell or one off the board
+    public WallBlock get(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            return null;
+        }
+        return cells[row * columns + column];
+    }
+
+    public List<WallBlock> getBlocks() {
+        return blocks;
+    }
+
+    public int columnOf(float x) {
+        return (int) Math.floor(x / App.CELLSIZE);
+    }
+
+    public int rowOf(float y) {
+        return (int) Math.floor((y - App.TOPBAR) / App.CELLSIZE);
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,31 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BallCollisionsTest {
+
+    // Touching balls in neighbouring hash cells swap their approach velocities; distant ones are left alone
+    @Test
+    public void ballsBounceOffEachOther() {
+        BallStore balls = new BallStore();
+        Random random = new Random(1);
+        for (int i = 0; i < 40; i++) {
+            balls.add(30 + (i % 8) * 60, 300 + (i / 8) * 60, 0, random);
+        }
+        int a = balls.add(100, 100, 0, random);
+        int b = balls.add(120, 100, 0, random);
+        balls.setVelocity(a, 2, 1);
+        balls.setVelocity(b, -2, 1);
+        float farVx = balls.getVx(0);
+
+        new BallCollisions().resolve(balls);
+        assertEquals(-2, balls.getVx(a), 1e-6f);
+        assertEquals(2, balls.getVx(b), 1e-6f);
+        assertEquals(1, balls.getVy(a), 1e-6f);
+        assertEquals(farVx, balls.getVx(0));
+    }
+}
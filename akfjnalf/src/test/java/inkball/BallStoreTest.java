@@ -0,0 +1,107 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BallStoreTest {
+
+    // A move remembers where the ball started, so drawing can blend between the two ticks
+    @Test
+    public void moveKeepsPreviousPosition() {
+        BallStore balls = new BallStore();
+        int ball = balls.add(100, 200, 0, new Random(1));
+        balls.beginMove(ball);
+        balls.translate(ball, 4, -2);
+        balls.translate(ball, 2, 0);
+        assertEquals(100, balls.getInterpolatedX(ball, 0));
+        assertEquals(200, balls.getInterpolatedY(ball, 0));
+        assertEquals(106, balls.getInterpolatedX(ball, 1));
+        assertEquals(198, balls.getInterpolatedY(ball, 1));
+        assertEquals(103, balls.getInterpolatedX(ball, 0.5f));
+    }
+
+    // Compacting the store after a capture carries each survivor's previous position with it
+    @Test
+    public void compactionKeepsPreviousPositions() {
+        BallStore balls = new BallStore();
+        Random random = new Random(1);
+        for (int i = 0; i < 3; i++) {
+            int ball = balls.add(100 * i, 50, i, random);
+            balls.beginMove(ball);
+            balls.translate(ball, 10, 5);
+        }
+        balls.copy(2, 0);
+        balls.truncate(2);
+        assertEquals(2, balls.size());
+        assertEquals(200, balls.getInterpolatedX(0, 0));
+        assertEquals(210, balls.getX(0));
+        assertEquals(2, balls.getColor(0));
+
+        BallStore frame = new BallStore();
+        frame.copyFrom(balls);
+        assertEquals(200, frame.getInterpolatedX(0, 0));
+        assertEquals(55, frame.getInterpolatedY(1, 1));
+    }
+
+    // Moves and forces are scaled by the time step, so a half-length tick covers half the ground
+    @Test
+    public void timeStepScalesSpeed() {
+        BallStore full = new BallStore(1);
+        BallStore half = new BallStore(0.5f);
+        full.add(0, 0, 0, new Random(1));
+        half.add(0, 0, 0, new Random(1));
+        assertEquals(full.getVx(0) * full.getTimeStep(), 2 * half.getVx(0) * half.getTimeStep());
+    }
+
+    // Adding past the initial capacity grows every array and keeps the balls already stored
+    @Test
+    public void storeGrowsAndKeepsBalls() {
+        BallStore balls = new BallStore();
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, balls.add(i, 2 * i, i % 5, random));
+        }
+        assertEquals(100, balls.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, balls.getX(i));
+            assertEquals(2 * i, balls.getY(i));
+            assertEquals(i % 5, balls.getColor(i));
+            assertEquals(BallStore.BALL_RADIUS, balls.getRadius(i));
+            assertEquals(2, Math.abs(balls.getVx(i)));
+            assertEquals(2, Math.abs(balls.getVy(i)));
+        }
+        balls.clear();
+        assertTrue(balls.isEmpty());
+    }
+
+    // Forces add to the velocity, which is capped at the maximum speed without changing direction
+    @Test
+    public void forcesAreCappedAtMaxSpeed() {
+        BallStore balls = new BallStore();
+        int ball = balls.add(0, 0, 0, new Random(1));
+        balls.setVelocity(ball, 1, 0);
+        balls.applyForce(ball, 1, 0);
+        assertEquals(2, balls.getVx(ball));
+        balls.applyForce(ball, 30, 40);
+        float speed = (float) Math.sqrt(balls.getVx(ball) * balls.getVx(ball) + balls.getVy(ball) * balls.getVy(ball));
+        assertEquals(5, speed, 1e-4f);
+        assertEquals(32f / 40f, balls.getVx(ball) / balls.getVy(ball), 1e-4f);
+    }
+
+    // Reflection mirrors the velocity about the normal, which need not be unit length
+    @Test
+    public void reflectUsesNormalisedNormal() {
+        BallStore balls = new BallStore();
+        int ball = balls.add(0, 0, 0, new Random(1));
+        balls.setVelocity(ball, 3, -2);
+        balls.reflect(ball, 0, 5);
+        assertEquals(3, balls.getVx(ball), 1e-6f);
+        assertEquals(2, balls.getVy(ball), 1e-6f);
+        balls.reflect(ball, -1, -1);
+        assertEquals(-2, balls.getVx(ball), 1e-6f);
+        assertEquals(-3, balls.getVy(ball), 1e-6f);
+    }
+}
@@ -0,0 +1,38 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+
+    // The same seeds give the same runs and the same report whatever the thread count
+    @Test
+    public void batchResultsAreDeterministic() throws Exception {
+        BatchRunner runner = new BatchRunner(Paths.get("config.json"), BatchRunner.RANDOM_LINES);
+        List<List<BatchRunner.RunResult>> serial = runner.run(4, 7, 1);
+        List<List<BatchRunner.RunResult>> parallel = runner.run(4, 7, 3);
+
+        assertEquals(runner.getLevelCount(), serial.size());
+        for (int level = 0; level < serial.size(); level++) {
+            assertEquals(4, serial.get(level).size());
+            for (int run = 0; run < 4; run++) {
+                BatchRunner.RunResult expected = serial.get(level).get(run);
+                BatchRunner.RunResult actual = parallel.get(level).get(run);
+                assertEquals(level, actual.levelIndex);
+                assertEquals(BatchRunner.seedFor(7, level, run), actual.seed);
+                assertEquals(expected.completed, actual.completed);
+                assertEquals(expected.score, actual.score);
+                assertEquals(expected.timeBonus, actual.timeBonus);
+                assertEquals(expected.ticks, actual.ticks);
+                assertTrue(actual.ticks > 0);
+            }
+        }
+        String report = BatchRunner.report(serial);
+        assertEquals(report, BatchRunner.report(parallel));
+        assertTrue(report.startsWith("Level 1: 4 runs, completion rate"));
+    }
+}
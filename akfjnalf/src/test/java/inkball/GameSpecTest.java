@@ -0,0 +1,19 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+import processing.data.JSONObject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSpecTest {
+
+    // Without rates in the config the game ticks at the tuned 30 Hz and draws at 60 fps
+    @Test
+    public void ratesDefaultWhenMissing() {
+        JSONObject config = JSONObject.parse("{\"levels\": [], "
+                + "\"score_increase_from_hole_capture\": {}, \"score_decrease_from_wrong_hole\": {}}");
+        GameSpec spec = new GameSpec(config);
+        assertEquals(App.FPS, spec.getSimulationRate());
+        assertEquals(60, spec.getFrameRate());
+    }
+}
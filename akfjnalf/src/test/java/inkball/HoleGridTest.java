@@ -0,0 +1,42 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoleGridTest {
+
+    // The hole grid lists, for any point on the board, exactly the holes close enough to pull a ball there
+    @Test
+    public void holeGridMatchesFullScan() throws Exception {
+        for (Level level : LevelLoader.loadLevels(Paths.get("config.json"), new Random(1), change -> { })) {
+            HoleGrid grid = level.getTemplate().getHoleGrid();
+            BallStore balls = new BallStore();
+            int ball = balls.add(0, 0, 0, new Random(1));
+            for (float y = App.TOPBAR; y < App.HEIGHT; y += 3.5f) {
+                for (float x = 0; x < App.WIDTH; x += 3.5f) {
+                    balls.setPosition(ball, x, y);
+                    List<Integer> expected = new ArrayList<>();
+                    for (int i = 0; i < level.getHoles().size(); i++) {
+                        if (level.getHoles().get(i).attracts(balls, ball)) {
+                            expected.add(i);
+                        }
+                    }
+                    List<Integer> found = new ArrayList<>();
+                    int cell = grid.cellOf(x, y);
+                    for (int i = grid.start(cell); i < grid.end(cell); i++) {
+                        if (level.getHoles().get(grid.getHole(i)).attracts(balls, ball)) {
+                            found.add(grid.getHole(i));
+                        }
+                    }
+                    assertEquals(expected, found);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputPlaybackTest {
+
+    // A recorded game replays to the same tick, level and score from its seed and input alone
+    @Test
+    public void replayMatchesRecording() throws Exception {
+        Path recording = Files.createTempFile("inkball", ".inkr");
+        Game game = Game.load(Paths.get("config.json"), 99);
+        InputRecorder recorder = new InputRecorder(recording, game.getSeed(), "config.json");
+        game.setRecorder(recorder);
+        Random script = new Random(5);
+        for (int tick = 0; tick < 120 * App.FPS && !game.isEnded(); tick++) {
+            if (tick % App.FPS == 0) {
+                int x = App.CELLSIZE + script.nextInt(App.WIDTH - 3 * App.CELLSIZE);
+                int y = App.TOPBAR + App.CELLSIZE + script.nextInt(App.HEIGHT - App.TOPBAR - 3 * App.CELLSIZE);
+                game.startDrawingLine(x, y);
+                game.continueDrawingLine(x + App.CELLSIZE, y + 10);
+                game.finishDrawingLine();
+            }
+            game.tick();
+        }
+        recorder.close(game.getTick());
+
+        InputPlayback playback = InputPlayback.load(recording);
+        Game replay = Game.load(Paths.get(playback.getConfigPath()), playback.getSeed());
+        while (!playback.isFinished(replay)) {
+            playback.applyDue(replay);
+            replay.tick();
+        }
+        Files.delete(recording);
+
+        assertEquals(game.getTick(), replay.getTick());
+        assertEquals(game.getCurrentLevelIndex(), replay.getCurrentLevelIndex());
+        assertEquals(game.getScore(), replay.getScore());
+        assertEquals(game.getCurrentLevel().getBalls().size(), replay.getCurrentLevel().getBalls().size());
+    }
+}
@@ -0,0 +1,38 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputQueueTest {
+
+    // Input queued on another thread reaches the game in order when the loop drains it; a full queue drops
+    @Test
+    public void queuedInputIsAppliedOnDrain() throws Exception {
+        Game game = Game.load(Paths.get("config.json"), 5);
+        InputQueue input = new InputQueue();
+        Thread events = new Thread(() -> {
+            input.offer(InputRecorder.START_LINE, 100, 200);
+            for (int x = 110; x <= 300; x += 10) {
+                input.offer(InputRecorder.CONTINUE_LINE, x, 200);
+            }
+            input.offer(InputRecorder.FINISH_LINE, 0, 0);
+        });
+        events.start();
+        events.join();
+        assertTrue(game.getCurrentLevel().getPlayerLines().isEmpty());
+
+        assertEquals(22, input.drain(game));
+        assertEquals(1, game.getCurrentLevel().getPlayerLines().size());
+        assertTrue(input.isEmpty());
+
+        int accepted = 0;
+        while (input.offer(InputRecorder.ERASE, 0, 0)) {
+            accepted++;
+        }
+        assertEquals(1024, accepted);
+        assertEquals(1024, input.drain(game));
+    }
+}
@@ -0,0 +1,78 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+import processing.core.PVector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernelBenchmarkTest {
+
+    // Every ball's step crosses its target segment and box, so the sweep benchmarks time the hit path
+    @Test
+    public void sweepTargetsAreHitByEveryBall() {
+        for (int ballCount : new int[] {8, 2000}) {
+            KernelBenchmark.Balls b = new KernelBenchmark.Balls();
+            b.ballCount = ballCount;
+            b.setUp();
+            assertEquals(ballCount, b.balls.size());
+
+            PVector out = new PVector();
+            float half = App.CELLSIZE / 2f;
+            for (int ball = 0; ball < ballCount; ball++) {
+                float x = b.balls.getX(ball);
+                float y = b.balls.getY(ball);
+                float r = b.balls.getRadius(ball);
+                float segment = VectorMath.sweepCircleToSegment(x, y, b.dx[ball], b.dy[ball],
+                        b.targets[ball * 4], b.targets[ball * 4 + 1], b.targets[ball * 4 + 2], b.targets[ball * 4 + 3], r, out);
+                assertTrue(segment <= 1, "segment missed by ball " + ball + " of " + ballCount);
+                float box = VectorMath.sweepCircleToBox(x, y, b.dx[ball], b.dy[ball],
+                        b.boxX[ball] - half, b.boxY[ball] - half, b.boxX[ball] + half, b.boxY[ball] + half, r, out);
+                assertTrue(box <= 1, "box missed by ball " + ball + " of " + ballCount);
+            }
+        }
+    }
+
+    // Each wall becomes its own block at both sizes, so the stress case really sweeps that many
+    @Test
+    public void wallFixtureHasOneBlockPerWall() {
+        for (int wallCount : new int[] {68, 1024}) {
+            KernelBenchmark.Walls w = new KernelBenchmark.Walls();
+            w.wallCount = wallCount;
+            w.setUp();
+            assertEquals(wallCount, w.blocks.size());
+        }
+    }
+
+    // The scribble has the requested number of points and a ball dropped onto it is caught by the index
+    @Test
+    public void lineFixtureIsIndexed() {
+        for (int pointCount : new int[] {20, 500}) {
+            KernelBenchmark.Line l = new KernelBenchmark.Line();
+            l.pointCount = pointCount;
+            l.setUp();
+            assertEquals(pointCount, l.line.getPointCount());
+
+            BallStore balls = new BallStore();
+            int ball = balls.add(l.line.getX(1), l.line.getY(1) - 20, 0, new Random(1));
+            SweepHit hit = new SweepHit();
+            hit.reset();
+            l.index.sweep(balls, ball, 0, 20, new PVector(), hit);
+            assertTrue(hit.isHit(), "line missed at " + pointCount + " points");
+        }
+    }
+
+    // Ticking a level past its end restarts it rather than measuring a finished board
+    @Test
+    public void levelTickBenchmarkRunsPastLevelEnd() throws Exception {
+        for (int levelIndex = 0; levelIndex < 3; levelIndex++) {
+            LevelTickBenchmark benchmark = new LevelTickBenchmark();
+            benchmark.levelIndex = levelIndex;
+            benchmark.setUp();
+            for (int i = 0; i < 8000; i++) {
+                benchmark.update();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LatencyHistogramTest {
+
+    // Histogram percentiles land within the bucket precision
+    @Test
+    public void latencyHistogramReportsPercentiles() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram("test.uniform");
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 * 0.035);
+        assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 * 0.035);
+        assertEquals(99_900_000, histogram.getValueAtPercentile(99.9), 99_900_000 * 0.035);
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(50_000_500, histogram.getMean(), 50_000_500 * 0.035);
+        Thread other = new Thread(() -> histogram.record(200_000_000));
+        other.start();
+        other.join();
+        assertEquals(100_001, histogram.getCount()); // Every stripe's counts are merged on read
+        assertEquals(200_000_000, histogram.getMax());
+        LatencyHistogram small = new LatencyHistogram("test.small");
+        small.record(31);
+        assertEquals(31, small.getValueAtPercentile(50)); // Exact below 32ns
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    // Level ticks feed the registry; only meaningful when run with -Dinkball.metrics=on, as gradle test does
+    @Test
+    public void levelTicksAreTimed() throws Exception {
+        assumeTrue(Metrics.ENABLED);
+        LatencyHistogram update = Metrics.histogram("level.update");
+        long before = update.getCount();
+        Level level = LevelLoader.loadLevels(Paths.get("config.json"), new Random(1), change -> { }).get(0);
+        for (int tick = 0; tick < 10; tick++) {
+            level.update();
+        }
+        assertEquals(before + 10, update.getCount());
+    }
+}
@@ -0,0 +1,27 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelCatalogTest {
+
+    // A game only loads the level being played and prefetches the next one
+    @Test
+    public void gameLoadsLevelsLazily() throws Exception {
+        GameSpec spec = LevelLoader.loadSpec(Paths.get("config.json"));
+        List<String> loaded = new ArrayList<>();
+        LevelCatalog catalog = new LevelCatalog(spec, (level, tickRate) -> {
+            loaded.add(level.getLayout());
+            return LevelLoader.loadTemplate(Paths.get(level.getLayout()), level, tickRate);
+        }, Runnable::run);
+
+        Game game = new Game(spec, catalog, 1);
+        assertEquals(List.of("level1.txt", "level2.txt"), loaded);
+        assertEquals(0, game.getCurrentLevelIndex());
+    }
+}
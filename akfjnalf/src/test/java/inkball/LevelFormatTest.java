@@ -0,0 +1,57 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelFormatTest {
+
+    // A layout compiled to .lvl and mapped back builds the same level as the text file
+    @Test
+    public void compiledLayoutMatchesText() throws Exception {
+        LevelSpec spec = LevelLoader.loadSpec(Paths.get("config.json")).getLevels().get(2);
+        String[] layout = LevelLoader.loadLayout(Paths.get("level3.txt"));
+        Path compiled = Files.createTempFile("level3", LevelFormat.EXTENSION);
+        Files.write(compiled, LevelFormat.compile(layout).array());
+
+        LevelTemplate text = new LevelTemplate(spec, layout, App.FPS);
+        LevelTemplate binary = LevelLoader.loadTemplate(compiled, spec, App.FPS);
+        Files.delete(compiled);
+
+        assertEquals(text.getWalls().size(), binary.getWalls().size());
+        for (int i = 0; i < text.getWalls().size(); i++) {
+            assertEquals(text.getWalls().get(i).getPosition(), binary.getWalls().get(i).getPosition());
+            assertEquals(text.getWalls().get(i).getColor(), binary.getWalls().get(i).getColor());
+        }
+        assertEquals(text.getHoles().size(), binary.getHoles().size());
+        assertEquals(text.getHoles().get(0).getPosition(), binary.getHoles().get(0).getPosition());
+        assertEquals(text.getSpawners().size(), binary.getSpawners().size());
+        assertEquals(text.getBallCount(), binary.getBallCount());
+        for (int i = 0; i < text.getBallCount(); i++) {
+            assertEquals(text.getBallX(i), binary.getBallX(i));
+            assertEquals(text.getBallY(i), binary.getBallY(i));
+            assertEquals(text.getBallColor(i), binary.getBallColor(i));
+        }
+    }
+
+    // A wall byte with a colour outside the palette loads as grey, like holes and balls
+    @Test
+    public void compiledLayoutRejectsBadWallColours() throws Exception {
+        LevelSpec spec = LevelLoader.loadSpec(Paths.get("config.json")).getLevels().get(0);
+        ByteBuffer compiled = LevelFormat.compile(new String[] {"4X", "  "});
+        int cells = 9;
+        assertEquals(5, compiled.get(cells));
+        compiled.put(cells, (byte) 40);
+        compiled.put(cells + 1, (byte) -3);
+
+        LevelTemplate template = new LevelTemplate(spec, compiled, App.FPS);
+        assertEquals(2, template.getWalls().size());
+        assertEquals(0, template.getWalls().get(0).getColor());
+        assertEquals(0, template.getWalls().get(1).getColor());
+    }
+}
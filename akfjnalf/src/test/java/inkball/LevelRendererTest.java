@@ -0,0 +1,97 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+import processing.awt.PGraphicsJava2D;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelRendererTest {
+    private static final int TILE = 0xFFC8C8C8;
+    private static final int WALL = 0xFF202020;
+
+    // An App with solid-colour sprites instead of the loaded art, counting how often the board is baked
+    private static final class StubApp extends App {
+        final SpriteAtlas atlas = new SpriteAtlas();
+        final int tileSprite = atlas.add(solid(TILE), CELLSIZE, CELLSIZE);
+        final int wallSprite = atlas.add(solid(WALL), CELLSIZE, CELLSIZE);
+        int bakes;
+
+        StubApp() {
+            atlas.pack();
+        }
+
+        // Off-screen layers without a running sketch or a screen to match
+        @Override
+        public PGraphics createGraphics(int width, int height) {
+            PGraphics layer = new PGraphicsJava2D();
+            layer.setParent(this);
+            layer.setPrimary(false);
+            layer.setSize(width, height);
+            layer.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            return layer;
+        }
+
+        @Override
+        public SpriteAtlas getAtlas() {
+            return atlas;
+        }
+
+        @Override
+        public int getTileSprite() {
+            bakes++; // Read once per bake
+            return tileSprite;
+        }
+
+        @Override
+        public int getWallSprite(int color) {
+            return wallSprite;
+        }
+
+        @Override
+        public int getHoleSprite(int color) {
+            return -1;
+        }
+
+        @Override
+        public int getSpawnerSprite() {
+            return -1;
+        }
+    }
+
+    private static PImage solid(int color) {
+        PImage image = new PImage(4, 4, PConstants.ARGB);
+        Arrays.fill(image.pixels, color);
+        return image;
+    }
+
+    // The board is baked once per level template and reused for every frame of that level
+    @Test
+    public void backgroundIsBakedOncePerTemplate() throws Exception {
+        GameSpec spec = LevelLoader.loadSpec(Paths.get("config.json"));
+        List<LevelTemplate> templates = LevelLoader.loadTemplates(Paths.get("config.json"), spec);
+        StubApp app = new StubApp();
+        LevelRenderer renderer = new LevelRenderer(app);
+
+        PGraphics first = renderer.getBackground(templates.get(0));
+        assertEquals(1, app.bakes);
+        assertSame(first, renderer.getBackground(templates.get(0)));
+        assertEquals(1, app.bakes);
+
+        Wall wall = templates.get(0).getWalls().get(0);
+        first.loadPixels();
+        assertEquals(WALL, first.get((int) wall.getX() + 1, (int) wall.getY() - App.TOPBAR + 1));
+
+        renderer.getBackground(templates.get(1));
+        assertEquals(2, app.bakes);
+        renderer.getBackground(templates.get(1));
+        assertEquals(2, app.bakes);
+    }
+}
@@ -0,0 +1,22 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelSpecTest {
+
+    // Score tables match the original per-capture lookup: per-level modifiers are ignored and grey matches any colour
+    @Test
+    public void scoreTablesIgnoreLevelModifiers() throws Exception {
+        LevelSpec level2 = LevelLoader.loadSpec(Paths.get("config.json")).getLevels().get(1);
+        int blue = LevelSpec.colorIndex("blue");
+        int orange = LevelSpec.colorIndex("orange");
+        assertEquals(50, level2.getScoreChange(blue, blue));
+        assertEquals(-25, level2.getScoreChange(blue, orange));
+        assertEquals(70, level2.getScoreChange(blue, 0));
+        assertEquals(50, level2.getScoreChange(0, blue));
+    }
+}
@@ -0,0 +1,143 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelTest {
+
+    // Every level in config.json can be loaded and stepped to the end without a PApplet
+    @Test
+    public void levelsRunHeadless() throws Exception {
+        int[] score = new int[1];
+        List<Level> levels = LevelLoader.loadLevels(Paths.get("config.json"), new Random(1), change -> score[0] += change);
+        assertEquals(3, levels.size());
+
+        for (Level level : levels) {
+            assertFalse(level.getWalls().isEmpty());
+            for (int tick = 0; tick < 200 * App.FPS && !level.isCompleted() && !level.isTimedOut(); tick++) {
+                level.update();
+            }
+            assertTrue(level.isCompleted() || level.isTimedOut());
+        }
+    }
+
+    // Finished lines can be found and erased through the segment index; unfinished strokes cannot
+    @Test
+    public void eraserUsesSegmentIndex() throws Exception {
+        Level level = LevelLoader.loadLevels(Paths.get("config.json"), new Random(1), change -> { }).get(0);
+        level.startDrawingLine(100, 200);
+        for (int x = 110; x <= 400; x += 10) {
+            level.continueDrawingLine(x, 200);
+        }
+        level.removeLineAt(250, 202);
+        assertNotNull(level.getCurrentLine());
+
+        level.finishDrawingLine();
+        assertEquals(1, level.getPlayerLines().size());
+        level.removeLineAt(250, 220);
+        assertEquals(1, level.getPlayerLines().size());
+        level.removeLineAt(250, 202);
+        assertTrue(level.getPlayerLines().isEmpty());
+    }
+
+    // Restart goes back to the exact starting state without rebuilding the layout
+    @Test
+    public void restartRestoresInitialState() throws Exception {
+        Level level = LevelLoader.loadLevels(Paths.get("config.json"), new Random(3), change -> { }).get(1);
+        List<Wall> walls = level.getWalls();
+        BallStore balls = level.getBalls();
+        float startX = balls.getX(0);
+        float startVx = balls.getVx(0);
+        int startBalls = balls.size();
+        int startQueue = level.getNextBallCount();
+        int firstQueued = level.getNextBall(0);
+
+        level.startDrawingLine(100, 300);
+        level.continueDrawingLine(200, 300);
+        level.finishDrawingLine();
+        for (int tick = 0; tick < 20 * App.FPS; tick++) {
+            level.update();
+        }
+        level.restart();
+
+        assertSame(walls, level.getWalls());
+        assertEquals(startBalls, balls.size());
+        assertEquals(startX, balls.getX(0));
+        assertEquals(startVx, balls.getVx(0));
+        assertEquals(startQueue, level.getNextBallCount());
+        assertEquals(firstQueued, level.getNextBall(0));
+        assertTrue(level.getPlayerLines().isEmpty());
+        assertFalse(level.isCompleted() || level.isTimedOut());
+    }
+
+    // Finishing a stroke drops points that sit within the tolerance of the simplified line
+    @Test
+    public void finishedLinesAreSimplified() throws Exception {
+        Level level = LevelLoader.loadLevels(Paths.get("config.json"), new Random(1), change -> { }).get(0);
+        level.startDrawingLine(100, 200);
+        for (int x = 106; x <= 400; x += 6) {
+            level.continueDrawingLine(x, 200 + (x / 6) % 2); // 1px jitter along a straight stroke
+        }
+        level.continueDrawingLine(400, 300);
+        assertEquals(52, level.getCurrentLine().getPointCount());
+
+        level.finishDrawingLine();
+        PlayerLine line = level.getPlayerLines().get(0);
+        assertEquals(3, line.getPointCount());
+        assertEquals(400, line.getX(2));
+        assertEquals(300, line.getY(2));
+        level.removeLineAt(250, 202);
+        assertTrue(level.getPlayerLines().isEmpty());
+    }
+
+    // Balls cover the same ground and timers count the same seconds whatever the simulation rate
+    @Test
+    public void speedAndTimersMatchAcrossSimulationRates() throws Exception {
+        LevelSpec spec = LevelLoader.loadSpec(Paths.get("config.json")).getLevels().get(0);
+        Level slow = new Level(LevelLoader.loadTemplate(Paths.get("level1.txt"), spec, 30), new Random(1), change -> { });
+        Level fast = new Level(LevelLoader.loadTemplate(Paths.get("level1.txt"), spec, 120), new Random(1), change -> { });
+        for (int second = 0; second < 2; second++) {
+            for (int tick = 0; tick < 30; tick++) {
+                slow.update();
+            }
+            for (int tick = 0; tick < 120; tick++) {
+                fast.update();
+            }
+            assertEquals(slow.getRemainingTime(), fast.getRemainingTime());
+            assertEquals(slow.getSpawnTimeRemaining(), fast.getSpawnTimeRemaining(), 1e-3f);
+            assertEquals(slow.getBalls().size(), fast.getBalls().size());
+            for (int ball = 0; ball < slow.getBalls().size(); ball++) {
+                assertEquals(slow.getBalls().getX(ball), fast.getBalls().getX(ball), 1.0f);
+                assertEquals(slow.getBalls().getY(ball), fast.getBalls().getY(ball), 1.0f);
+            }
+        }
+    }
+
+    // A capture compacts the ball store; the ball that moves into the freed slot keeps its own previous position
+    @Test
+    public void captureKeepsSurvivorsPreviousPositions() throws Exception {
+        Level level = LevelLoader.loadLevels(Paths.get("config.json"), new Random(1), change -> { }).get(0);
+        BallStore balls = level.getBalls();
+        Hole hole = level.getHoles().get(0);
+        balls.add(hole.getX(), hole.getY(), 0, new Random(1));
+        balls.add(App.WIDTH / 2f, App.HEIGHT / 2f, 0, new Random(1));
+        balls.copy(balls.size() - 2, 0); // The ball in the hole goes first, so the capture frees slot 0
+        balls.copy(balls.size() - 1, 1);
+        balls.truncate(2);
+        balls.setVelocity(0, 0, 0);
+        int survivors = balls.size() - 1;
+        float startX = balls.getX(1);
+        float startY = balls.getY(1);
+
+        level.update();
+        assertEquals(survivors, balls.size());
+        assertEquals(startX, balls.getInterpolatedX(0, 0));
+        assertEquals(startY, balls.getInterpolatedY(0, 0));
+        assertNotEquals(startX, balls.getX(0));
+    }
+}
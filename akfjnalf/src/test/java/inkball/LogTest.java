@@ -0,0 +1,54 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogTest {
+
+    // Queued events come out in order with their numbers formatted; warnings and errors go to stderr
+    @Test
+    public void eventsArePrintedInOrderOnFlush() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        Log.flush();
+        System.setOut(new PrintStream(out, true));
+        System.setErr(new PrintStream(err, true));
+        try {
+            Log.info("Spawned ball at", 2.5);
+            Log.info("Balls left:", 3);
+            Log.warn("Input queue full, inputs dropped:", 7);
+            Log.error("Unable to load tile.png");
+            Log.debug("Ball velocity after force:", 1, 2);
+            Log.flush();
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+
+        String printed = out.toString();
+        if (Log.isEnabled(Log.Severity.INFO)) {
+            assertTrue(printed.indexOf("[INFO] Spawned ball at 2.5") < printed.indexOf("[INFO] Balls left: 3"));
+            assertTrue(printed.contains("[INFO] Balls left: 3"));
+        }
+        assertEquals(Log.DEBUG, printed.contains("[DEBUG] Ball velocity after force: 1.0 2.0"));
+        assertEquals(Log.isEnabled(Log.Severity.WARN), err.toString().contains("[WARN] Input queue full, inputs dropped: 7"));
+        assertTrue(err.toString().contains("[ERROR] Unable to load tile.png"));
+        assertFalse(printed.contains("[WARN]"));
+    }
+
+    // Only events at or above the threshold are kept; errors always are
+    @Test
+    public void thresholdFiltersEvents() {
+        assertTrue(Log.isEnabled(Log.Severity.ERROR));
+        assertEquals(Log.DEBUG, Log.isEnabled(Log.Severity.DEBUG));
+        for (Log.Severity severity : Log.Severity.values()) {
+            assertEquals(severity.compareTo(Log.THRESHOLD) >= 0, Log.isEnabled(severity));
+        }
+    }
+}
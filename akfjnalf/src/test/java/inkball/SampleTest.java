@@ -1,25 +1,25 @@
-package inkball;
-
-import processing.core.PApplet;
-import org.junit.jupiter.api.Test;
-import static org.junit.jupiter.api.Assertions.*;
-
-public class SampleTest {
-
-    @Test
-    public void simpleTest() {
-        /*App app = new App();
-        app.loop();
-        PApplet.runSketch(new String[] { "App" }, app);
-        app.setup();
-        app.delay(1000);*/ // delay is to give time to initialise stuff before drawing begins
-    }
-}
-
-// gradle run						Run the program
-// gradle test						Run the testcases
-
-// Please ensure you leave comments in your testcases explaining what the testcase is testing.
-// Your mark will be based off the average of branches and instructions code coverage.
-// To run the testcases and generate the jacoco code coverage report: 
-// gradle test jacocoTestReport
+package inkball;
+
+import processing.core.PApplet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SampleTest {
+
+    @Test
+    public void simpleTest() {
+        /*App app = new App();
+        app.loop();
+        PApplet.runSketch(new String[] { "App" }, app);
+        app.setup();
+        app.delay(1000);*/ // delay is to give time to initialise stuff before drawing begins
+    }
+}
+
+// gradle run						Run the program
+// gradle test						Run the testcases
+
+// Please ensure you leave comments in your testcases explaining what the testcase is testing.
+// Your mark will be based off the average of branches and instructions code coverage.
+// To run the testcases and generate the jacoco code coverage report: 
+// gradle test jacocoTestReport
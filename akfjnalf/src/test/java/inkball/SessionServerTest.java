@@ -0,0 +1,35 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionServerTest {
+
+    // The session server admits up to its cap, runs each game on its own clock and frees slots on close
+    @Test
+    public void sessionServerRunsIndependentGames() throws Exception {
+        try (SessionServer server = SessionServer.load(Paths.get("config.json"), 2)) {
+            SessionServer.Session first = server.open(1);
+            SessionServer.Session second = server.open(2);
+            assertNull(server.open(3));
+            assertEquals(1, server.getRejectedCount());
+
+            assertTrue(first.send(InputRecorder.START_LINE, 100, 200));
+            first.send(InputRecorder.CONTINUE_LINE, 200, 200);
+            first.send(InputRecorder.FINISH_LINE, 0, 0);
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while ((first.getTicks() < 5 || second.getTicks() < 5) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, first.getFrame().getPlayerLines().size());
+            assertTrue(second.getFrame().getPlayerLines().isEmpty());
+
+            server.close(first);
+            assertNull(server.get(first.getId()));
+            assertNotNull(server.open(4));
+        }
+    }
+}
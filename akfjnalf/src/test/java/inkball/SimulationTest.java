@@ -0,0 +1,116 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationTest {
+
+    // The simulation thread keeps publishing frames; after it stops, the newest frame matches the game
+    @Test
+    public void simulationPublishesFrames() throws Exception {
+        Game game = Game.load(Paths.get("config.json"), 8);
+        InputQueue input = new InputQueue();
+        Simulation simulation = new Simulation(game, input, null, 1_000_000L);
+        assertEquals(0, simulation.acquireFrame().getTick());
+
+        simulation.start();
+        input.offer(InputRecorder.START_LINE, 100, 200);
+        input.offer(InputRecorder.CONTINUE_LINE, 200, 200);
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (simulation.acquireFrame().getTick() < 50 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        simulation.stop();
+
+        RenderFrame frame = simulation.acquireFrame();
+        assertTrue(frame.getTick() >= 50);
+        assertEquals(game.getTick(), frame.getTick());
+        assertEquals(game.getCurrentLevel().getBalls().size(), frame.getBalls().size());
+        assertEquals(game.getCurrentLevel().getNextBallCount(), frame.getNextBallCount());
+        assertEquals(2, frame.getStrokePointCount());
+        assertEquals(200, frame.getStrokeX(1));
+    }
+
+    // An ended game stops publishing frames until input arrives, and a restart wakes it up
+    @Test
+    public void endedGameIdlesUntilInput() throws Exception {
+        // Empty boards with nothing queued, so every level completes on its first tick
+        Path config = Files.createTempFile("inkball", ".json");
+        String json = new String(Files.readAllBytes(Paths.get("config.json")), StandardCharsets.UTF_8);
+        Files.write(config, json.replaceAll("\"balls\": \\[[^]]*]", "\"balls\": []").getBytes(StandardCharsets.UTF_8));
+        GameSpec spec = LevelLoader.loadSpec(config);
+        Files.delete(config);
+        List<LevelTemplate> templates = new ArrayList<>();
+        for (LevelSpec level : spec.getLevels()) {
+            templates.add(new LevelTemplate(level, new String[] {"  ", "  "}, spec.getSimulationRate()));
+        }
+        Game game = new Game(spec, templates, 8);
+        while (!game.isEnded()) {
+            game.tick();
+        }
+        InputQueue input = new InputQueue();
+        Simulation simulation = new Simulation(game, input, null, 1_000_000L);
+        simulation.start();
+        Thread.sleep(50);
+        assertTrue(countFrames(simulation, 200) <= 2);
+
+        assertEquals(0, simulation.getTicks());
+
+        // The restart wakes the loop, which plays the levels through again and goes back to sleep
+        input.offer(InputRecorder.RESTART, 0, 0);
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (simulation.getTicks() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(3, simulation.getTicks());
+        Thread.sleep(50);
+        assertTrue(countFrames(simulation, 200) <= 2);
+        simulation.stop();
+        assertTrue(game.isEnded());
+    }
+
+    // Missed steps up to the lag cap run back to back; a longer stall drops the backlog
+    @Test
+    public void catchUpIsCapped() {
+        assertEquals(1_000L, Simulation.catchUp(1_000L, 100_000_000L));
+        assertEquals(251_001_000L, Simulation.catchUp(1_000L, 251_001_000L));
+    }
+
+    // The loop ticks at its fixed rate against the wall clock, however the thread is scheduled
+    @Test
+    public void ticksFollowTheClock() throws Exception {
+        Game game = Game.load(Paths.get("config.json"), 3);
+        Simulation simulation = new Simulation(game, new InputQueue(), null, 5_000_000L);
+        long start = System.nanoTime();
+        simulation.start();
+        Thread.sleep(500);
+        simulation.stop();
+        long expected = (System.nanoTime() - start) / 5_000_000L;
+        assertTrue(simulation.getTicks() <= expected + 1);
+        assertTrue(simulation.getTicks() >= expected - 10);
+    }
+
+    // Distinct frames the renderer sees while polling for the given time
+    private static int countFrames(Simulation simulation, long millis) throws InterruptedException {
+        int frames = 0;
+        long last = simulation.acquireFrame().getTickNanos();
+        long end = System.nanoTime() + millis * 1_000_000L;
+        while (System.nanoTime() < end) {
+            long tickNanos = simulation.acquireFrame().getTickNanos();
+            if (tickNanos != last) {
+                frames++;
+                last = tickNanos;
+            }
+            Thread.sleep(1);
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,76 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteAtlasTest {
+    private static final int RED = 0xFFFF0000;
+    private static final int GREEN = 0xFF00FF00;
+    private static final int BLUE = 0xFF0000FF;
+
+    private static PImage solid(int width, int height, int color) {
+        PImage image = new PImage(width, height, PConstants.ARGB);
+        Arrays.fill(image.pixels, color);
+        return image;
+    }
+
+    // Sprites are scaled to their draw size once and packed tallest first, left to right
+    @Test
+    public void spritesArePackedAtTheirDrawSize() {
+        SpriteAtlas atlas = new SpriteAtlas();
+        int small = atlas.add(solid(4, 4, RED), 20, 20);
+        int large = atlas.add(solid(8, 8, GREEN), 32, 32);
+        int exact = atlas.add(solid(24, 24, BLUE), 24, 24);
+        assertEquals(0, small);
+        assertEquals(1, large);
+        assertEquals(2, exact);
+        atlas.pack();
+
+        PImage image = atlas.getImage();
+        assertEquals(256, image.width);
+        assertEquals(32, image.height);
+        // Tallest first on one shelf: 32px green, then 24px blue, then 20px red
+        assertEquals(GREEN, image.get(0, 0));
+        assertEquals(GREEN, image.get(31, 31));
+        assertEquals(BLUE, image.get(32, 0));
+        assertEquals(BLUE, image.get(55, 23));
+        assertEquals(0, image.get(55, 24));
+        assertEquals(RED, image.get(56, 0));
+        assertEquals(RED, image.get(75, 19));
+        assertEquals(0, image.get(76, 0));
+    }
+
+    // A row wider than the atlas starts a new shelf below the tallest sprite of the last one
+    @Test
+    public void spritesWrapOntoShelves() {
+        SpriteAtlas atlas = new SpriteAtlas();
+        for (int i = 0; i < 5; i++) {
+            atlas.add(solid(1, 1, RED), 64, 64);
+        }
+        atlas.add(solid(1, 1, BLUE), 32, 32);
+        atlas.pack();
+
+        PImage image = atlas.getImage();
+        assertEquals(128, image.height);
+        assertEquals(RED, image.get(255, 63));
+        assertEquals(RED, image.get(0, 64));
+        assertEquals(RED, image.get(63, 127));
+        assertEquals(BLUE, image.get(64, 64));
+        assertEquals(0, image.get(96, 64));
+    }
+
+    // Missing art and sprites added after packing get no id
+    @Test
+    public void missingAndLateSpritesAreRejected() {
+        SpriteAtlas atlas = new SpriteAtlas();
+        assertEquals(-1, atlas.add(null, 32, 32));
+        assertEquals(0, atlas.add(solid(2, 2, RED), 2, 2));
+        atlas.pack();
+        assertEquals(-1, atlas.add(solid(2, 2, RED), 2, 2));
+    }
+}
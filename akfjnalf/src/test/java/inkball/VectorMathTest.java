@@ -0,0 +1,54 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+import processing.core.PVector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VectorMathTest {
+
+    // A ball moving most of a tile per tick stops at the first edge in its path instead of passing through
+    @Test
+    public void fastBallsDoNotTunnel() {
+        BallStore balls = new BallStore();
+        int ball = balls.add(70, 116, 0, new Random(1));
+        PVector normal = new PVector();
+
+        WallBlock wall = new WallBlock(0, 100, 100, 132, 132, 0);
+        assertEquals(0.18f, wall.sweep(balls, ball, 100, 0, normal), 1e-4f);
+        assertEquals(-1, normal.x, 1e-6f);
+        assertEquals(0, normal.y, 1e-6f);
+        assertEquals(VectorMath.NO_HIT, wall.sweep(balls, ball, 0, 100, normal));
+
+        float time = VectorMath.sweepCircleToSegment(70, 116, 100, 0, 120, 0, 120, 400, BallStore.BALL_RADIUS, normal);
+        assertEquals(0.38f, time, 1e-4f);
+        assertEquals(-1, normal.x, 1e-6f);
+    }
+
+    // The scalar helpers agree with PVector and write into the vector they are given
+    @Test
+    public void scalarMathMatchesPVector() {
+        PVector out = new PVector();
+        assertSame(out, VectorMath.normalize(3, -4, out));
+        PVector expected = new PVector(3, -4).normalize();
+        assertEquals(expected.x, out.x, 1e-6f);
+        assertEquals(expected.y, out.y, 1e-6f);
+        VectorMath.normalize(0, 0, out);
+        assertEquals(0, out.x);
+        assertEquals(0, out.y);
+
+        assertEquals(25, VectorMath.distanceSquared(1, 1, 4, 5));
+        assertEquals(PVector.dist(new PVector(1, 1), new PVector(4, 5)), (float) Math.sqrt(VectorMath.distanceSquared(1, 1, 4, 5)));
+    }
+
+    // Distance to a segment is measured to the nearest point on it, clamped to its ends
+    @Test
+    public void distanceToSegmentClampsToEnds() {
+        assertEquals(9, VectorMath.distanceSquaredToSegment(5, 3, 0, 0, 10, 0)); // Beside the middle
+        assertEquals(25, VectorMath.distanceSquaredToSegment(-3, 4, 0, 0, 10, 0)); // Past the start
+        assertEquals(4, VectorMath.distanceSquaredToSegment(12, 0, 0, 0, 10, 0)); // Past the end
+        assertEquals(2, VectorMath.distanceSquaredToSegment(1, 1, 0, 0, 0, 0)); // Degenerate segment
+    }
+}
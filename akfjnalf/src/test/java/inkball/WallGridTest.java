@@ -0,0 +1,65 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+import processing.core.PVector;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WallGridTest {
+
+    // Same-coloured wall tiles merge into rectangles; a ball skimming a merged run sees one flat edge
+    @Test
+    public void wallTilesMergeIntoBlocks() {
+        List<Wall> walls = new ArrayList<>();
+        for (int column = 0; column < 4; column++) {
+            walls.add(new Wall(column * App.CELLSIZE, App.TOPBAR, 0));
+            walls.add(new Wall(column * App.CELLSIZE, App.TOPBAR + App.CELLSIZE, 0));
+        }
+        walls.add(new Wall(4 * App.CELLSIZE, App.TOPBAR, 2));
+        WallGrid grid = new WallGrid(8, 8, walls);
+        assertEquals(2, grid.getBlocks().size());
+        WallBlock run = grid.get(0, 0);
+        assertSame(run, grid.get(3, 1));
+        assertEquals(4 * App.CELLSIZE, run.getRight());
+        assertEquals(2, grid.get(4, 0).getColor());
+
+        // Across the seam between the first two tiles: the old per-tile test met a tile corner here
+        BallStore balls = new BallStore();
+        int ball = balls.add(App.CELLSIZE, App.TOPBAR + 2 * App.CELLSIZE + 20, 0, new Random(1));
+        PVector normal = new PVector();
+        assertEquals(0.5f, run.sweep(balls, ball, 4, -16, normal), 1e-4f);
+        assertEquals(0, normal.x, 1e-6f);
+        assertEquals(1, normal.y, 1e-6f);
+    }
+
+    // Every wall tile of every level is found through its own cell; empty and off-board cells have no wall
+    @Test
+    public void everyWallIsIndexedByItsCell() throws Exception {
+        for (Level level : LevelLoader.loadLevels(Paths.get("config.json"), new Random(1), change -> { })) {
+            WallGrid grid = level.getTemplate().getWallGrid();
+            boolean[] occupied = new boolean[App.BOARD_WIDTH * App.BOARD_HEIGHT];
+            for (Wall wall : level.getWalls()) {
+                int column = grid.columnOf(wall.getX());
+                int row = grid.rowOf(wall.getY());
+                occupied[row * App.BOARD_WIDTH + column] = true;
+                WallBlock block = grid.get(column, row);
+                assertNotNull(block);
+                assertEquals(wall.getColor(), block.getColor());
+                assertTrue(block.getLeft() <= wall.getX() && wall.getX() + App.CELLSIZE <= block.getRight());
+                assertTrue(block.getTop() <= wall.getY() && wall.getY() + App.CELLSIZE <= block.getBottom());
+            }
+            for (int row = 0; row < App.BOARD_HEIGHT; row++) {
+                for (int column = 0; column < App.BOARD_WIDTH; column++) {
+                    assertEquals(occupied[row * App.BOARD_WIDTH + column], grid.get(column, row) != null);
+                }
+            }
+            assertNull(grid.get(-1, 0));
+            assertNull(grid.get(0, App.BOARD_HEIGHT));
+        }
+    }
+}